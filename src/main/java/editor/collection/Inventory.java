@@ -1,21 +1,35 @@
 package editor.collection;
 
+import java.io.Closeable;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import editor.collection.deck.CategorySpec;
+import editor.database.attributes.Expansion;
 import editor.database.card.Card;
 import editor.filter.Filter;
+import editor.filter.FilterGroup;
+import editor.filter.FilterPlan;
+import editor.filter.FilterPlanner;
 import editor.filter.leaf.BinaryFilter;
+import editor.util.IndexedBitSet;
+import editor.util.StringMatcher;
 
 /**
  * This class represents an inventory of cards that can be added to decks.
@@ -104,13 +118,44 @@ public class Inventory implements CardList
      */
     private Filter filter;
     /**
-     * Filtered view of the master list.
+     * Positions in the master list of the cards that pass the filter.
      */
-    private List<Card> filtrate;
+    private IndexedBitSet filtrate;
     /**
-     * Map of Card multiverseids onto their cards.
+     * Planner for testing the cards in the master list with filters.
      */
-    private final Map<String, Card> ids;
+    private final FilterPlanner planner;
+    /**
+     * Map of Card Scryfall IDs onto the positions of their cards in the master list.
+     */
+    private final Map<String, Integer> ids;
+    /**
+     * Map of the multiverseids of every face of each Card onto their cards.
+     */
+    private final Map<Integer, Card> multiverseids;
+    /**
+     * Map of Card Scryfall IDs onto hashes of the JSON records they were loaded from.
+     */
+    private final Map<String, Long> records;
+    /**
+     * Storage containing the details of the cards, or null if they're in memory.
+     */
+    private final Closeable storage;
+    /**
+     * Map of lower-case Card names and face names onto the cards that have them, or null
+     * if it hasn't been needed yet.
+     */
+    private Map<String, List<Card>> names;
+    /**
+     * Matcher finding the keys of {@link #names} in text, or null if it hasn't been needed
+     * yet.
+     */
+    private StringMatcher<List<Card>> nameMatcher;
+    /**
+     * Matcher finding the lower-case names of the expansions of the cards in text, or null
+     * if it hasn't been needed yet.
+     */
+    private StringMatcher<Expansion> expansionMatcher;
 
     /**
      * Create an empty Inventory.  Be careful, because Inventories are immutable.
@@ -126,11 +171,52 @@ public class Inventory implements CardList
      * @param list List of Cards
      */
     public Inventory(Collection<Card> list)
+    {
+        this(list, Collections.emptyMap());
+    }
+
+    /**
+     * Create a new Inventory with the given list of cards, remembering the JSON records
+     * they were loaded from so a newer version of the inventory can tell which of them
+     * changed.
+     *
+     * @param list List of Cards
+     * @param r map of the Scryfall IDs of the cards onto hashes of their JSON records
+     */
+    public Inventory(Collection<Card> list, Map<String, Long> r)
+    {
+        this(list, r, null);
+    }
+
+    /**
+     * Create a new Inventory with the given list of cards whose details are kept in
+     * storage rather than in memory.
+     *
+     * @param list List of Cards
+     * @param r map of the Scryfall IDs of the cards onto hashes of their JSON records
+     * @param s storage containing the details of the cards, which should be closed when
+     * the new Inventory is replaced
+     */
+    public Inventory(Collection<Card> list, Map<String, Long> r, Closeable s)
     {
         cards = new ArrayList<>(list);
-        ids = cards.stream().collect(Collectors.toMap((c) -> c.scryfallid().get(0), Function.identity()));
+        records = Collections.unmodifiableMap(new HashMap<>(r));
+        storage = s;
+        ids = IntStream.range(0, cards.size()).boxed().collect(Collectors.toMap((i) -> cards.get(i).scryfallid().get(0), Function.identity()));
+        multiverseids = new HashMap<>(cards.size());
+        // Front faces are indexed first so they take precedence over other faces with the same ID
+        for (Card c : cards)
+            multiverseids.putIfAbsent(c.multiverseid().get(0), c);
+        for (Card c : cards)
+            for (int id : c.multiverseid())
+                multiverseids.putIfAbsent(id, c);
+        names = null;
+        nameMatcher = null;
+        expansionMatcher = null;
         filter = new BinaryFilter(true);
-        filtrate = cards;
+        filtrate = new IndexedBitSet(cards.size());
+        filtrate.setAll();
+        planner = new FilterPlanner(cards);
     }
 
     /**
@@ -196,7 +282,8 @@ public class Inventory implements CardList
     @Override
     public boolean contains(Card card)
     {
-        return ids.values().contains(card);
+        Integer index = ids.get(card.scryfallid().get(0));
+        return index != null && card.equals(cards.get(index));
     }
 
     /**
@@ -211,8 +298,8 @@ public class Inventory implements CardList
         return ids.keySet().contains(id);
     }
 
-     /**
-     * Determine if there is a card with the given Gatherer ID.
+    /**
+     * Determine if there is a card with the given Gatherer ID on any of its faces.
      * 
      * @param id ID to check
      * @return <code>true</code> if a Card with the given Gatherer ID exists in the
@@ -220,7 +307,7 @@ public class Inventory implements CardList
      */
     public boolean contains(int id)
     {
-        return ids.values().stream().map((c) -> c.multiverseid().get(0)).anyMatch((i) -> i == id);
+        return multiverseids.containsKey(id);
     }
 
     /**
@@ -230,13 +317,13 @@ public class Inventory implements CardList
     @Override
     public boolean containsAll(Collection<? extends Card> cards) throws UnsupportedOperationException
     {
-        return this.cards.containsAll(cards);
+        return cards.stream().allMatch(this::contains);
     }
 
     @Override
     public Card get(int index) throws IndexOutOfBoundsException
     {
-        return filtrate.get(index);
+        return cards.get(filtrate.select(index));
     }
 
     /**
@@ -248,18 +335,122 @@ public class Inventory implements CardList
      */
     public Card find(String id)
     {
-        return ids.get(id);
+        Integer index = ids.get(id);
+        return index == null ? null : cards.get(index);
     }
 
     /**
-     * Get the card in this Inventory with the given multiverseid.
+     * @return A map of the Scryfall IDs of the cards in this Inventory onto hashes of the
+     * JSON records they were loaded from, which is empty if they aren't known.
+     */
+    public Map<String, Long> records()
+    {
+        return records;
+    }
+
+    /**
+     * @return The storage containing the details of the cards in this Inventory, which
+     * should be closed once the Inventory is no longer used, or an empty value if they're
+     * kept in memory.
+     */
+    public Optional<Closeable> storage()
+    {
+        return Optional.ofNullable(storage);
+    }
+
+    /**
+     * Get the card in this Inventory with the given multiverseid on any of its faces.
      * 
      * @param id multiverseid of the Card to look for
      * @return the Card with the given multiverseid, or null if there isn't one.
      */
     public Card find(int id)
     {
-        return ids.values().stream().filter((c) -> c.multiverseid().get(0) == id).findAny().orElse(null);
+        return multiverseids.get(id);
+    }
+
+    /**
+     * Get all printings of the card with the given name, ignoring case.
+     *
+     * @param name name of the card to look for, which can be its full name or the name
+     * of one of its faces
+     * @return A list of cards with the given name or face name, which is empty if there
+     * aren't any.
+     */
+    public List<Card> printings(String name)
+    {
+        return names().getOrDefault(name.toLowerCase(), Collections.emptyList());
+    }
+
+    /**
+     * Get all printings of all cards whose names appear in some text.  Cards whose names
+     * are longer come first, so if the text contains the name of a card that contains the
+     * name of another card, the card with the longer name is first.
+     *
+     * @param text lower-case text to search
+     * @return A list of cards whose full names or face names appear in the text.
+     */
+    public List<Card> printingsIn(String text)
+    {
+        StringMatcher<List<Card>> matcher;
+        synchronized (this)
+        {
+            if (nameMatcher == null)
+                nameMatcher = new StringMatcher<>(names());
+            matcher = nameMatcher;
+        }
+        var found = matcher.find(text);
+        found.sort(Comparator.comparingInt((StringMatcher.Match<List<Card>> m) -> m.length()).reversed());
+        return found.stream().flatMap((m) -> m.value.stream()).distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * Get the expansions of cards in this Inventory whose names appear in some text.  If
+     * the name of one expansion appears only as part of the name of another, like "Set 1"
+     * in "Set 10," only the expansion with the longer name is included.
+     *
+     * @param text lower-case text to search
+     * @return The set of expansions whose names appear in the text.
+     */
+    public Set<Expansion> expansionsIn(String text)
+    {
+        StringMatcher<Expansion> matcher;
+        synchronized (this)
+        {
+            if (expansionMatcher == null)
+            {
+                var expansions = new HashMap<String, Expansion>();
+                for (Card c : cards)
+                    expansions.putIfAbsent(c.expansion().name.toLowerCase(), c.expansion());
+                expansionMatcher = new StringMatcher<>(expansions);
+            }
+            matcher = expansionMatcher;
+        }
+        return matcher.findLongest(text).stream().map((m) -> m.value).collect(Collectors.toSet());
+    }
+
+    /**
+     * Create the index of card names if it hasn't been created yet.
+     *
+     * @return The map of lower-case card names and face names onto their printings.
+     */
+    private synchronized Map<String, List<Card>> names()
+    {
+        if (names == null)
+        {
+            var index = new HashMap<String, List<Card>>();
+            for (Card c : cards)
+            {
+                var keys = new LinkedHashSet<String>();
+                keys.add(c.unifiedName().toLowerCase());
+                for (String name : c.name())
+                    keys.add(name.toLowerCase());
+                for (String key : keys)
+                    index.computeIfAbsent(key, (k) -> new ArrayList<>()).add(c);
+            }
+            names = index;
+        }
+        return names;
     }
 
     /**
@@ -295,7 +486,10 @@ public class Inventory implements CardList
     @Override
     public int indexOf(Card card)
     {
-        return filtrate.indexOf(card);
+        Integer index = ids.get(card.scryfallid().get(0));
+        if (index == null || !card.equals(cards.get(index)) || !filtrate.get(index))
+            return -1;
+        return filtrate.rank(index);
     }
 
     /**
@@ -305,7 +499,7 @@ public class Inventory implements CardList
     @Override
     public boolean isEmpty()
     {
-        return filtrate.isEmpty();
+        return filtrate.cardinality() == 0;
     }
 
     @Override
@@ -390,17 +584,21 @@ public class Inventory implements CardList
     @Override
     public int size()
     {
-        return filtrate.size();
+        return filtrate.cardinality();
     }
 
     /**
-     * Sort the list using the specified Comparator.
+     * Sort the list using the specified Comparator.  The cards that pass the filter
+     * are sorted along with it.
      *
      * @param comp Comparator to use for sorting
      */
     public void sort(Comparator<? super CardList.Entry> c)
     {
         cards.sort((a, b) -> c.compare(new InventoryEntry(a), new InventoryEntry(b)));
+        for (int i = 0; i < cards.size(); i++)
+            ids.put(cards.get(i).scryfallid().get(0), i);
+        updateFilter(filter);
     }
 
     /**
@@ -429,7 +627,88 @@ public class Inventory implements CardList
      */
     public void updateFilter(Filter f)
     {
+        updateFilter(f, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Update the filtered view of this Inventory, testing cards with the filter in
+     * parallel if there are enough of them.
+     *
+     * @param f new filter
+     * @param threshold largest number of cards to test on one thread
+     * @see Filter#test(List, int)
+     */
+    public void updateFilter(Filter f, int threshold)
+    {
+        updateFilter(f, test(f, threshold, () -> false));
+    }
+
+    /**
+     * Find the cards in this Inventory that pass a filter without changing its filtered
+     * view.  This doesn't modify the Inventory, so it can be done off of the thread that
+     * uses it, as long as the Inventory isn't sorted at the same time.  The result can be
+     * shown using {@link #updateFilter(Filter, IndexedBitSet)}.  Filter groups are tested
+     * according to their {@link #plan(Filter) plans}.
+     *
+     * @param f filter to test cards with
+     * @param threshold largest number of cards to test on one thread
+     * @param cancelled whether or not testing has been cancelled
+     * @return The positions of the cards that pass the filter.
+     * @throws CancellationException if testing was cancelled before it finished
+     * @see Filter#test(List, int, BooleanSupplier)
+     */
+    public IndexedBitSet test(Filter f, int threshold, BooleanSupplier cancelled) throws CancellationException
+    {
+        // Only groups can be reordered, so don't spend time estimating anything else
+        return (f instanceof FilterGroup ? plan(f).filter() : f).test(cards, threshold, cancelled);
+    }
+
+    /**
+     * Plan how to test the cards in this Inventory with a filter.  This is the plan
+     * used to find the cards that pass it.
+     *
+     * @param f filter to plan for
+     * @return The plan for testing cards with the filter.
+     * @see FilterPlanner
+     */
+    public FilterPlan plan(Filter f)
+    {
+        return planner.plan(f);
+    }
+
+    /**
+     * Plan how to test the cards in this Inventory with a filter, and then test all of
+     * them according to the plan while timing each part of it.  This is slower than
+     * filtering normally, so it should only be used to find out why a filter is slow.
+     *
+     * @param f filter to analyze
+     * @return The plan for testing cards with the filter, with the number of cards each
+     * part of it tested and passed and how long that took.
+     * @see FilterPlan#analyze(List)
+     */
+    public FilterPlan analyze(Filter f)
+    {
+        FilterPlan plan = plan(f);
+        plan.analyze(cards);
+        return plan;
+    }
+
+    /**
+     * Update the filtered view of this Inventory with the cards that have already been
+     * found to pass a filter.  The filter and the cards that pass it are replaced
+     * together.
+     *
+     * @param f new filter
+     * @param passed positions of the cards that pass the filter, from
+     * {@link #test(Filter, int, BooleanSupplier)}
+     * @throws IllegalArgumentException if the positions aren't for all of the cards in
+     * the Inventory
+     */
+    public void updateFilter(Filter f, IndexedBitSet passed) throws IllegalArgumentException
+    {
+        if (passed.length() != cards.size())
+            throw new IllegalArgumentException("expected " + cards.size() + " cards, got " + passed.length());
         filter = f;
-        filtrate = cards.stream().filter(filter).collect(Collectors.toList());
+        filtrate = passed;
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package editor.collection.deck;
 
 import java.awt.Color;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -154,12 +155,12 @@ public class CategorySpec
      * Get the set of cards that should not be included in the category,
      * even if they pass through the filter.
      *
-     * @return the set of cards that explicitly must never pass through the
-     * filter
+     * @return a read-only view of the set of cards that explicitly must never
+     * pass through the filter, which changes as cards are included and excluded
      */
     public Set<Card> getBlacklist()
     {
-        return new HashSet<>(blacklist);
+        return Collections.unmodifiableSet(blacklist);
     }
 
     /**
@@ -196,11 +197,12 @@ public class CategorySpec
      * Get the set of cards that should be included in the category even
      * if they don't pass through the filter.
      *
-     * @return the set of cards that explicitly must pass through the filter.
+     * @return a read-only view of the set of cards that explicitly must pass
+     * through the filter, which changes as cards are included and excluded.
      */
     public Set<Card> getWhitelist()
     {
-        return new HashSet<>(whitelist);
+        return Collections.unmodifiableSet(whitelist);
     }
 
     @Override
@@ -16,9 +16,11 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import editor.collection.CardList;
 import editor.database.card.Card;
+import editor.filter.Filter;
 
 /**
  * This class represents a deck which can have cards added and removed (in quantity) and have several category
@@ -32,6 +34,10 @@ public class Deck implements CardList
      * This class represents a category of a deck.  If a card is added or removed using the add and remove
      * methods, the master list will be updated to reflect this only if the card passes through the Category's filter.
      *
+     * Which cards are in a Category is recorded in the {@link DeckEntry#categories} of their entries, and
+     * is kept up to date as cards are added and removed and as the Category's specification changes, along
+     * with the number of cards in it.  The list of its cards in order is only computed when it's needed.
+     *
      * @author Alec Roelke
      */
     private class Category implements CardList
@@ -41,13 +47,38 @@ public class Deck implements CardList
          */
         private CategorySpec spec;
         /**
-         * List representing the filtered view of the master list.
+         * List representing the filtered view of the master list, or null if it has to be
+         * computed again because cards were reordered or added out of order.
          */
         private List<Card> filtrate;
+        /**
+         * Positions of cards in {@link #filtrate}, which is null whenever it is.
+         */
+        private Map<Card, Integer> positions;
         /**
          * Rank of this Category.
          */
         private int rank;
+        /**
+         * Number of unique cards in this Category.
+         */
+        private int size;
+        /**
+         * Total number of cards in this Category, accounting for multiples.
+         */
+        private int total;
+        /**
+         * Copy of the filter of {@link #spec} when this Category's cards were last updated.
+         */
+        private Filter lastFilter;
+        /**
+         * Copy of the whitelist of {@link #spec} when this Category's cards were last updated.
+         */
+        private Set<Card> lastWhitelist;
+        /**
+         * Copy of the blacklist of {@link #spec} when this Category's cards were last updated.
+         */
+        private Set<Card> lastBlacklist;
 
         /**
          * Create a new Category.
@@ -60,6 +91,74 @@ public class Deck implements CardList
             update(spec);
         }
 
+        /**
+         * Add a card in the deck to this Category, if it isn't already in it.
+         *
+         * @param entry entry of the card to add
+         */
+        private void addMember(DeckEntry entry)
+        {
+            if (entry.categories.add(this))
+            {
+                size++;
+                total += entry.count;
+                if (filtrate != null && masterList.get(masterList.size() - 1) == entry)
+                {
+                    positions.put(entry.card, filtrate.size());
+                    filtrate.add(entry.card);
+                }
+                else
+                    invalidate();
+            }
+        }
+
+        /**
+         * Remove a card in the deck from this Category, if it is in it.
+         *
+         * @param entry entry of the card to remove
+         */
+        private void removeMember(DeckEntry entry)
+        {
+            if (entry.categories.remove(this))
+            {
+                size--;
+                total -= entry.count;
+                if (filtrate != null)
+                {
+                    int index = positions.remove(entry.card);
+                    filtrate.remove(index);
+                    for (int i = index; i < filtrate.size(); i++)
+                        positions.put(filtrate.get(i), i);
+                }
+            }
+        }
+
+        /**
+         * Forget the order of the cards in this Category, so it's computed again the next
+         * time it's needed.
+         */
+        private void invalidate()
+        {
+            filtrate = null;
+            positions = null;
+        }
+
+        /**
+         * @return The list of cards in this Category, in the same order as they are in the
+         * deck.
+         */
+        private List<Card> filtrate()
+        {
+            if (filtrate == null)
+            {
+                filtrate = masterList.stream().filter((e) -> e.categories.contains(this)).map(DeckEntry::card).collect(Collectors.toList());
+                positions = new HashMap<>(filtrate.size());
+                for (int i = 0; i < filtrate.size(); i++)
+                    positions.put(filtrate.get(i), i);
+            }
+            return filtrate;
+        }
+
         /**
          * {@inheritDoc}
          * Only add the card if it passes through the specification's filter.  If it doesn't,
@@ -124,7 +223,8 @@ public class Deck implements CardList
         @Override
         public boolean contains(Card card)
         {
-            return filtrate.contains(card);
+            DeckEntry entry = entries.get(card);
+            return entry != null && entry.categories.contains(this);
         }
 
         @Override
@@ -139,7 +239,7 @@ public class Deck implements CardList
         @Override
         public Card get(int index) throws IndexOutOfBoundsException
         {
-            return filtrate.get(index);
+            return filtrate().get(index);
         }
 
         @Override
@@ -157,7 +257,10 @@ public class Deck implements CardList
         @Override
         public int indexOf(Card card) throws IllegalArgumentException
         {
-            return spec.includes(card) ? filtrate.indexOf(card) : -1;
+            if (!contains(card))
+                return -1;
+            filtrate();
+            return positions.get(card);
         }
 
         @Override
@@ -169,7 +272,7 @@ public class Deck implements CardList
         @Override
         public Iterator<Card> iterator()
         {
-            return filtrate.iterator();
+            return filtrate().iterator();
         }
 
         /**
@@ -237,13 +340,13 @@ public class Deck implements CardList
         @Override
         public int size()
         {
-            return filtrate.size();
+            return size;
         }
 
         @Override
         public Card[] toArray()
         {
-            return filtrate.toArray(new Card[filtrate.size()]);
+            return filtrate().toArray(new Card[size]);
         }
 
         /**
@@ -260,23 +363,62 @@ public class Deck implements CardList
         @Override
         public int total()
         {
-            return filtrate.stream().map(Deck.this::getEntry).mapToInt(Entry::count).sum();
+            return total;
         }
 
         /**
          * Update this category so its filtrate reflects the new filter, whitelist, and blacklist.
+         * If the filter hasn't changed, only the cards that were added to or removed from the
+         * whitelist or blacklist are checked again.
+         *
+         * @param s new specification for this Category
          */
         public void update(CategorySpec s)
         {
-            spec = s;
-            filtrate = masterList.stream().map((e) -> e.card).filter(spec::includes).collect(Collectors.toList());
-            for (DeckEntry e : masterList)
+            if (spec != null && lastFilter.equals(spec.getFilter()) && lastFilter.equals(s.getFilter()))
             {
-                if (spec.includes(e.card))
-                    e.categories.add(this);
-                else
-                    e.categories.remove(this);
+                // Also check cards whose lists were changed without updating, like by Deck#remove
+                var changed = new HashSet<Card>();
+                for (Card card : Stream.of(spec.getWhitelist(), s.getWhitelist(), spec.getBlacklist(), s.getBlacklist(), lastWhitelist, lastBlacklist).flatMap(Set::stream).collect(Collectors.toSet()))
+                {
+                    if (lastWhitelist.contains(card) != spec.getWhitelist().contains(card) || lastWhitelist.contains(card) != s.getWhitelist().contains(card)
+                            || lastBlacklist.contains(card) != spec.getBlacklist().contains(card) || lastBlacklist.contains(card) != s.getBlacklist().contains(card))
+                        changed.add(card);
+                }
+                spec = s;
+                for (Card card : changed)
+                {
+                    DeckEntry entry = entries.get(card);
+                    if (entry != null)
+                    {
+                        if (spec.includes(card))
+                            addMember(entry);
+                        else
+                            removeMember(entry);
+                    }
+                }
             }
+            else
+            {
+                spec = s;
+                invalidate();
+                size = 0;
+                total = 0;
+                for (DeckEntry e : masterList)
+                {
+                    if (spec.includes(e.card))
+                    {
+                        e.categories.add(this);
+                        size++;
+                        total += e.count;
+                    }
+                    else
+                        e.categories.remove(this);
+                }
+            }
+            lastFilter = spec.getFilter().copy();
+            lastWhitelist = new HashSet<>(spec.getWhitelist());
+            lastBlacklist = new HashSet<>(spec.getBlacklist());
         }
 
         @Override
@@ -410,6 +552,15 @@ public class Deck implements CardList
      * List of cards in this Deck.
      */
     private List<DeckEntry> masterList;
+    /**
+     * Entries in {@link #masterList} indexed by card, so they can be found without
+     * searching through it.
+     */
+    private Map<Card, DeckEntry> entries;
+    /**
+     * Positions of cards in {@link #masterList}.
+     */
+    private Map<Card, Integer> indices;
     /**
      * Categories in this Deck.
      */
@@ -429,6 +580,8 @@ public class Deck implements CardList
     public Deck()
     {
         masterList = new ArrayList<>();
+        entries = new HashMap<>();
+        indices = new HashMap<>();
         categories = new LinkedHashMap<>();
         total = 0;
         land = 0;
@@ -476,20 +629,22 @@ public class Deck implements CardList
         if (amount < 1)
             return false;
 
-        DeckEntry entry = (DeckEntry)getEntry(card);
-        if (entry.count == 0)
+        DeckEntry entry = entries.get(card);
+        if (entry == null)
         {
-            masterList.add(entry = new DeckEntry(card, 0, date));
+            masterList.add(entry = new DeckEntry(card, amount, date));
+            entries.put(card, entry);
+            indices.put(card, masterList.size() - 1);
             for (Category category : categories.values())
-            {
                 if (category.spec.includes(card))
-                {
-                    category.filtrate.add(card);
-                    entry.categories.add(category);
-                }
-            }
+                    category.addMember(entry);
+        }
+        else
+        {
+            entry.add(amount);
+            for (Category category : entry.categories)
+                category.total += amount;
         }
-        entry.add(amount);
         total += amount;
         if (card.isLand())
             land += amount;
@@ -580,6 +735,8 @@ public class Deck implements CardList
     public void clear()
     {
         masterList.clear();
+        entries.clear();
+        indices.clear();
         categories.clear();
         total = 0;
         land = 0;
@@ -653,7 +810,14 @@ public class Deck implements CardList
      */
     public boolean exclude(String name, Card card)
     {
-        return contains(card) && categories.get(name).spec.exclude(card);
+        if (contains(card) && categories.get(name).spec.exclude(card))
+        {
+            Category category = categories.get(name);
+            category.update(category.spec);
+            return true;
+        }
+        else
+            return false;
     }
 
     @Override
@@ -703,10 +867,8 @@ public class Deck implements CardList
     @Override
     public Entry getEntry(Card card)
     {
-        for (DeckEntry e : masterList)
-            if (e.card.equals(card))
-                return e;
-        return new DeckEntry(card, 0, null);
+        DeckEntry e = entries.get(card);
+        return e != null ? e : new DeckEntry(card, 0, null);
     }
 
     @Override
@@ -724,7 +886,34 @@ public class Deck implements CardList
     @Override
     public int indexOf(Card card)
     {
-        return masterList.indexOf(getEntry(card));
+        return indices.getOrDefault(card, -1);
+    }
+
+    /**
+     * Remove an entry whose card has no more copies from the list of cards and from
+     * all categories.  The card is also taken out of the categories' whitelists and
+     * blacklists.
+     *
+     * @param entry entry to remove
+     */
+    private void removeEntry(DeckEntry entry)
+    {
+        for (Category category : categories.values())
+        {
+            if (category.spec.getWhitelist().contains(entry.card))
+                category.spec.exclude(entry.card);
+            if (category.spec.getBlacklist().contains(entry.card))
+                category.spec.include(entry.card);
+        }
+        for (Category category : new ArrayList<>(entry.categories))
+            category.removeMember(entry);
+
+        // Removing from the list shifts the entries after it anyway, so shift their positions too
+        int index = indices.remove(entry.card);
+        masterList.remove(index);
+        entries.remove(entry.card);
+        for (int i = index; i < masterList.size(); i++)
+            indices.put(masterList.get(i).card, i);
     }
 
     @Override
@@ -788,18 +977,10 @@ public class Deck implements CardList
         int removed = entry.remove(amount);
         if (removed > 0)
         {
+            for (Category category : entry.categories)
+                category.total -= removed;
             if (entry.count == 0)
-            {
-                for (Category category : categories.values())
-                {
-                    if (category.spec.getWhitelist().contains(card))
-                        category.spec.exclude(card);
-                    if (category.spec.getBlacklist().contains(card))
-                        category.spec.include(card);
-                    category.filtrate.remove(card);
-                }
-                masterList.remove(entry);
-            }
+                removeEntry(entry);
             total -= removed;
             if (card.isLand())
                 land -= removed;
@@ -898,20 +1079,11 @@ public class Deck implements CardList
             if (e.card.isLand())
                 land += amount - e.count;
 
-            var change = new HashMap<Card, Integer>();
-            change.put(card, amount - e.count);
-
+            for (Category category : e.categories)
+                category.total += amount - e.count;
             e.count = amount;
             if (e.count == 0)
-            {
-                masterList.remove(e);
-                for (Category category : categories.values())
-                {
-                    category.filtrate.remove(e.card);
-                    category.spec.getWhitelist().remove(e.card);
-                    category.spec.getBlacklist().remove(e.card);
-                }
-            }
+                removeEntry(e);
 
             return true;
         }
@@ -1002,7 +1174,9 @@ public class Deck implements CardList
     public void sort(Comparator<? super CardList.Entry> c)
     {
         masterList.sort(c);
+        for (int i = 0; i < masterList.size(); i++)
+            indices.put(masterList.get(i).card, i);
         for (Category category : categories.values())
-            category.filtrate.sort((a, b) -> c.compare(getEntry(a), getEntry(b)));
+            category.invalidate();
     }
 }
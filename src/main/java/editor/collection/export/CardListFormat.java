@@ -2,27 +2,71 @@ package editor.collection.export;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.text.ParseException;
+import java.util.function.IntConsumer;
 
 import editor.collection.CardList;
 import editor.gui.editor.DeckSerializer;
 
 /**
  * This is an interface for formatting a list of cards.  It can format
- * a list of cards into a string and it can parse a string into a card
- * list.
+ * a list of cards into a string or write it out a card at a time, and it
+ * can parse a string into a card list.
  *
  * @author Alec Roelke
  */
 public interface CardListFormat
 {
+    /**
+     * Write the string representation of the given list of cards one card at a
+     * time, so the whole representation never has to be held in memory.  Cards
+     * are separated by line separators, and there is no separator after the last
+     * one.  The header isn't written.
+     *
+     * @param list list of cards to format
+     * @param destination writer to write the formatted cards to
+     * @param progress function to call with the number of cards written so far
+     * after each card is written
+     * @throws IOException if the cards can't be written
+     */
+    void format(CardList list, Writer destination, IntConsumer progress) throws IOException;
+
+    /**
+     * Write the string representation of the given list of cards one card at a
+     * time.
+     *
+     * @param list list of cards to format
+     * @param destination writer to write the formatted cards to
+     * @throws IOException if the cards can't be written
+     * @see #format(CardList, Writer, IntConsumer)
+     */
+    default void format(CardList list, Writer destination) throws IOException
+    {
+        format(list, destination, (n) -> {});
+    }
+
     /**
      * Create a string representation of the given list of cards.
      *
      * @param list list of cards to format
      * @return the string representation of the list of cards
      */
-    String format(CardList list);
+    default String format(CardList list)
+    {
+        var writer = new StringWriter();
+        try
+        {
+            format(list, writer);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
 
     /**
      * @return <code>true</code> if this CardListFormat has headings, and
@@ -2,13 +2,16 @@ package editor.collection.export;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
-import java.util.StringJoiner;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 import editor.collection.CardList;
@@ -55,14 +58,11 @@ public class DelimitedCardListFormat implements CardListFormat
      * @param delimiter delimiter to split with
      * @param line string to split
      * @return an array containing the split string with delimiters and surrounding {@value #ESCAPE} removed
+     * @see DelimitedReader#split(String, String)
      */
     public static String[] split(String delimiter, String line)
     {
-        String[] cells = line.split(delimiter + "(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
-        for (int i = 0; i < cells.length; i++)
-            if (cells[i].substring(0, ESCAPE.length()).equals(ESCAPE) || cells[i].substring(cells[i].length() - ESCAPE.length()).equals(ESCAPE))
-                cells[i] = cells[i].substring(1, cells[i].length() - 1);
-        return cells;
+        return DelimitedReader.split(delimiter, line).toArray(String[]::new);
     }
 
     /**
@@ -124,7 +124,7 @@ public class DelimitedCardListFormat implements CardListFormat
      */
     private List<CardAttribute> types;
     /**
-     * Current position in the text.
+     * Current row in the text.
      */
     private int pos;
     /**
@@ -152,23 +152,32 @@ public class DelimitedCardListFormat implements CardListFormat
     }
 
     @Override
-    public String format(CardList list)
+    public void format(CardList list, Writer destination, IntConsumer progress) throws IOException
     {
-        StringJoiner join = new StringJoiner(System.lineSeparator());
         var columnFormats = types.stream().map((t) -> new CardFormat('{' + t.toString().toLowerCase() + '}')).collect(Collectors.toList());
+        var builder = new StringBuilder();
+        var value = new StringBuilder();
+        int written = 0;
         for (Card card : list)
         {
-            StringJoiner line = new StringJoiner(delimiter);
-            for (CardFormat format : columnFormats)
+            builder.setLength(0);
+            if (written > 0)
+                builder.append(System.lineSeparator());
+            CardList.Entry entry = list.getEntry(card);
+            for (int i = 0; i < columnFormats.size(); i++)
             {
-                String value = format.format(list.getEntry(card));
-                if (value.contains(delimiter))
-                    value = ESCAPE + value.replace(ESCAPE, ESCAPE + ESCAPE) + ESCAPE;
-                line.add(value);
+                if (i > 0)
+                    builder.append(delimiter);
+                value.setLength(0);
+                columnFormats.get(i).format(entry, value);
+                if (value.indexOf(delimiter) >= 0 || value.indexOf(ESCAPE) >= 0 || value.indexOf("\n") >= 0 || value.indexOf("\r") >= 0)
+                    builder.append(ESCAPE).append(value.toString().replace(ESCAPE, ESCAPE + ESCAPE)).append(ESCAPE);
+                else
+                    builder.append(value);
             }
-            join.add(line.toString());
+            destination.append(builder);
+            progress.accept(++written);
         }
-        return join.toString();
     }
 
     @Override
@@ -184,10 +193,10 @@ public class DelimitedCardListFormat implements CardListFormat
      * Parse a delimited line to find which headers in the table contain which
      * information.
      * 
-     * @param line line to parse
+     * @param headers cells of the line to parse
      * @throws ParseException if the line can't be parsed
      */
-    private void parseHeader(String line) throws ParseException
+    private void parseHeader(List<String> headers) throws ParseException
     {
         if (include)
             throw new IllegalStateException("Headers are already defined");
@@ -195,8 +204,7 @@ public class DelimitedCardListFormat implements CardListFormat
         {
             if (!include)
             {
-                String[] headers = line.split(delimiter);
-                types = new ArrayList<>(headers.length);
+                types = new ArrayList<>(headers.size());
                 for (String header : headers)
                 {
                     boolean success = false;
@@ -212,30 +220,40 @@ public class DelimitedCardListFormat implements CardListFormat
                     if (!success)
                         throw new ParseException("unknown data type " + header, pos);
                 }
-                indices = new Indices(
-                    types.indexOf(CardAttribute.NAME),
-                    types.indexOf(CardAttribute.EXPANSION),
-                    types.indexOf(CardAttribute.CARD_NUMBER),
-                    types.indexOf(CardAttribute.COUNT),
-                    types.indexOf(CardAttribute.DATE_ADDED)
-                );
+                findIndices();
             }
         }
     }
 
+    /**
+     * Find the columns containing information that identifies cards from the data types
+     * in the table.
+     */
+    private void findIndices()
+    {
+        indices = new Indices(
+            types.indexOf(CardAttribute.NAME),
+            types.indexOf(CardAttribute.EXPANSION),
+            types.indexOf(CardAttribute.CARD_NUMBER),
+            types.indexOf(CardAttribute.COUNT),
+            types.indexOf(CardAttribute.DATE_ADDED)
+        );
+    }
+
     /**
      * Attempt to identify a card from a line of delimited text.
      * 
      * @param deck deck to add the parsed card to
-     * @param line line to parse
+     * @param row cells of the line to parse
      * @throws ParseException if the line can't be parsed
      */
-    private void parseLine(Deck deck, String line) throws ParseException
+    private void parseLine(Deck deck, List<String> row) throws ParseException
     {
-        line = line.replace(ESCAPE + ESCAPE, ESCAPE);
-        String[] cells = split(delimiter, line);
+        if (row.size() < types.size())
+            throw new ParseException("expected " + types.size() + " columns but found " + row.size(), pos);
+        String[] cells = row.toArray(String[]::new);
 
-        var possibilities = MainFrame.inventory().stream().filter((c) -> c.unifiedName().equalsIgnoreCase(cells[indices.name])).collect(Collectors.toList());
+        var possibilities = MainFrame.inventory().printings(cells[indices.name]).stream().filter((c) -> c.unifiedName().equalsIgnoreCase(cells[indices.name])).collect(Collectors.toList());
         if (possibilities.size() > 1 && indices.expansion > -1)
             possibilities.removeIf((c) -> !c.expansion().name.equalsIgnoreCase(cells[indices.expansion]));
         if (possibilities.size() > 1 && indices.number > -1)
@@ -255,37 +273,34 @@ public class DelimitedCardListFormat implements CardListFormat
         Optional<String> extra = Optional.empty();
         var extras = new LinkedHashMap<String, Deck>();
         pos = 0;
-        int c;
-        StringBuilder line = new StringBuilder(128);
-        boolean headed = false;
-        do
+        if (include)
+            findIndices();
+        var reader = new DelimitedReader(new InputStreamReader(source, StandardCharsets.UTF_8), delimiter);
+        List<String> row;
+        boolean headed = include;
+        while ((row = reader.readRow()) != null)
         {
-            c = source.read();
-            if (c >= 0 && c != '\r' && c != '\n')
-                line.append((char)c);
-            if (c == '\n' || c < 0)
+            pos = reader.rows();
+            if (row.size() == 1 && row.get(0).isEmpty())
+                continue;
+            if (!headed)
             {
-                if (!headed && !include)
+                parseHeader(row);
+                headed = true;
+            }
+            else
+            {
+                try
                 {
-                    parseHeader(line.toString());
-                    headed = true;
+                    parseLine(extra.map(extras::get).orElse(deck), row);
                 }
-                else
+                catch (ParseException e)
                 {
-                    try
-                    {
-                        parseLine(extra.map(extras::get).orElse(deck), line.toString());
-                    }
-                    catch (ParseException e)
-                    {
-                        extra = Optional.of(line.toString());
-                        extras.put(extra.get(), new Deck());
-                    }
+                    extra = Optional.of(reader.text());
+                    extras.put(extra.get(), new Deck());
                 }
-                line.setLength(0);
             }
-            pos++;
-        } while (c >= 0);
+        }
         return new DeckSerializer(deck, extras, "");
     }
 }
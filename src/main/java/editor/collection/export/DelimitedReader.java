@@ -0,0 +1,263 @@
+package editor.collection.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads rows of cells from delimited text, like comma-separated values, in
+ * a single pass.  It follows RFC 4180:  cells can be surrounded by
+ * {@value DelimitedCardListFormat#ESCAPE} so they can contain delimiters, line breaks,
+ * and doubled {@value DelimitedCardListFormat#ESCAPE} that stand for a single one.  It
+ * is lenient about text that doesn't follow it, so quotes in the middle of a cell are
+ * kept as they are.  Lines can end with "\n", "\r\n", or "\r".
+ *
+ * @author Alec Roelke
+ */
+public class DelimitedReader implements Closeable
+{
+    /**
+     * Character that surrounds cells containing special characters.
+     */
+    private static final char QUOTE = DelimitedCardListFormat.ESCAPE.charAt(0);
+    /**
+     * Byte order mark, which some programs write at the beginning of a file.
+     */
+    private static final char BOM = '\uFEFF';
+    /**
+     * Number of characters to read from the source at a time.
+     */
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    /**
+     * Split one line of delimited text into cells.
+     *
+     * @param delimiter delimiter between cells
+     * @param line line to split
+     * @return The list of cells in the line, with surrounding quotes removed and doubled
+     * quotes inside them replaced with single ones.
+     */
+    public static List<String> split(String delimiter, String line)
+    {
+        try (DelimitedReader reader = new DelimitedReader(new StringReader(line), delimiter))
+        {
+            List<String> cells = reader.readRow();
+            return cells == null ? List.of("") : cells;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Source of the text.
+     */
+    private final Reader source;
+    /**
+     * Delimiter between cells.
+     */
+    private final String delimiter;
+    /**
+     * Characters read from the source that haven't been parsed yet, starting at
+     * {@link #index} and ending before {@link #length}.
+     */
+    private final char[] buffer;
+    /**
+     * Index of the next character to parse in {@link #buffer}.
+     */
+    private int index;
+    /**
+     * Number of characters in {@link #buffer}.
+     */
+    private int length;
+    /**
+     * Whether or not the end of the source has been reached.
+     */
+    private boolean done;
+    /**
+     * Number of rows that have been read.
+     */
+    private int rows;
+    /**
+     * Text of the last row that was read.
+     */
+    private final StringBuilder text;
+
+    /**
+     * Create a new DelimitedReader.
+     *
+     * @param s source of the text, which should already decode it into characters
+     * (for example, from UTF-8)
+     * @param d delimiter between cells; it can't contain
+     * {@value DelimitedCardListFormat#ESCAPE} or line breaks
+     * @throws IllegalArgumentException if the delimiter is empty or contains quotes or
+     * line breaks
+     */
+    public DelimitedReader(Reader s, String d)
+    {
+        if (d.isEmpty() || d.indexOf(QUOTE) >= 0 || d.indexOf('\n') >= 0 || d.indexOf('\r') >= 0)
+            throw new IllegalArgumentException("illegal delimiter \"" + d + '"');
+        source = s;
+        delimiter = d;
+        buffer = new char[Math.max(BUFFER_SIZE, d.length())];
+        index = 0;
+        length = 0;
+        done = false;
+        rows = 0;
+        text = new StringBuilder();
+    }
+
+    /**
+     * Make sure there are at least some characters in the buffer that haven't been
+     * parsed, reading more from the source if there aren't enough.
+     *
+     * @param n number of characters needed
+     * @return <code>true</code> if there are at least that many characters, and
+     * <code>false</code> if the end of the source was reached first.
+     * @throws IOException if the source can't be read
+     */
+    private boolean fill(int n) throws IOException
+    {
+        if (length - index >= n)
+            return true;
+        if (index > 0)
+        {
+            System.arraycopy(buffer, index, buffer, 0, length - index);
+            length -= index;
+            index = 0;
+        }
+        while (!done && length < n)
+        {
+            int read = source.read(buffer, length, buffer.length - length);
+            if (read < 0)
+                done = true;
+            else
+                length += read;
+        }
+        return length - index >= n;
+    }
+
+    /**
+     * @return <code>true</code> if the next characters to parse are the delimiter, and
+     * <code>false</code> otherwise.
+     * @throws IOException if the source can't be read
+     */
+    private boolean atDelimiter() throws IOException
+    {
+        if (buffer[index] != delimiter.charAt(0))
+            return false;
+        if (delimiter.length() == 1)
+            return true;
+        if (!fill(delimiter.length()))
+            return false;
+        for (int i = 1; i < delimiter.length(); i++)
+            if (buffer[index + i] != delimiter.charAt(i))
+                return false;
+        return true;
+    }
+
+    /**
+     * Read the next row of cells.  A row ends at a line break that isn't inside a quoted
+     * cell, or at the end of the text.
+     *
+     * @return The list of cells in the next row, or null if there are no more rows.
+     * An empty line is a row with one empty cell.
+     * @throws IOException if the source can't be read
+     */
+    public List<String> readRow() throws IOException
+    {
+        if (!fill(1))
+            return null;
+        if (rows == 0 && buffer[index] == BOM)
+        {
+            index++;
+            if (!fill(1))
+                return null;
+        }
+
+        text.setLength(0);
+        var cells = new ArrayList<String>();
+        var cell = new StringBuilder();
+        boolean quoted = false;
+        boolean start = true;
+        while (fill(1))
+        {
+            char c = buffer[index];
+            // Everything but the line break that ends the row is part of its text
+            if (c != '\n' && c != '\r' || quoted)
+                text.append(c);
+            if (quoted)
+            {
+                index++;
+                if (c != QUOTE)
+                    cell.append(c);
+                else if (fill(1) && buffer[index] == QUOTE)
+                {
+                    cell.append(QUOTE);
+                    text.append(QUOTE);
+                    index++;
+                }
+                else
+                    quoted = false;
+            }
+            else if (start && c == QUOTE)
+            {
+                quoted = true;
+                start = false;
+                index++;
+            }
+            else if (c == '\n' || c == '\r')
+            {
+                index++;
+                if (c == '\r' && fill(1) && buffer[index] == '\n')
+                    index++;
+                break;
+            }
+            else if (atDelimiter())
+            {
+                cells.add(cell.toString());
+                cell.setLength(0);
+                start = true;
+                text.append(delimiter, 1, delimiter.length());
+                index += delimiter.length();
+            }
+            else
+            {
+                cell.append(c);
+                start = false;
+                index++;
+            }
+        }
+        cells.add(cell.toString());
+        rows++;
+        return cells;
+    }
+
+    /**
+     * @return The text of the last row that was read as it appears in the source, with
+     * quotes and delimiters but without the line break that ends it.
+     */
+    public String text()
+    {
+        return text.toString();
+    }
+
+    /**
+     * @return The number of rows that have been read so far.
+     */
+    public int rows()
+    {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        source.close();
+    }
+}
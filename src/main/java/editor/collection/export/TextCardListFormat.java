@@ -2,12 +2,16 @@ package editor.collection.export;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.text.ParseException;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.Date;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
 import java.util.LinkedHashMap;
 import java.util.Optional;
+import java.util.function.IntConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -16,9 +20,11 @@ import com.joestelmach.natty.Parser;
 
 import editor.collection.CardList;
 import editor.collection.deck.Deck;
+import editor.database.card.Card;
 import editor.database.card.CardFormat;
 import editor.gui.MainFrame;
 import editor.gui.editor.DeckSerializer;
+import editor.util.Lazy;
 
 /**
  * This class represents a formatter that formats a card list according to a
@@ -36,6 +42,72 @@ public class TextCardListFormat implements CardListFormat
      * Pattern used to determine the number of copies of a card in a deck.
      */
     public static final Pattern COUNT_PATTERN = Pattern.compile("(?:^(?:\\d+x|x\\d+|\\d+)|(?:\\d+x|x\\d+|\\d+)$)");
+    /**
+     * Pattern matching dates in ISO format (year-month-day).
+     */
+    private static final Pattern ISO_DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    /**
+     * Pattern matching dates that might be in the format of {@link Deck#DATE_FORMATTER}.
+     */
+    private static final Pattern DECK_DATE_PATTERN = Pattern.compile("\\p{L}+ \\d{1,2}, \\d{4}");
+    /**
+     * Case-insensitive version of {@link Deck#DATE_FORMATTER}, since lines are converted
+     * to lower case before they're parsed.
+     */
+    private static final DateTimeFormatter DECK_DATE_PARSER = new DateTimeFormatterBuilder().parseCaseInsensitive().append(Deck.DATE_FORMATTER).toFormatter();
+    /**
+     * Pattern matching words and numbers that might be part of a date in some other format.
+     * Only lines containing one of these are given to the general date parser.
+     */
+    private static final Pattern DATE_HINT_PATTERN = Pattern.compile("\\b(?:\\d+|jan|feb|mar|apr|may|jun|jul|aug|sep|oct|nov|dec|mon|tue|wed|thu|fri|sat|sun|today|tomorrow|yesterday|ago|last|next)");
+    /**
+     * Parser for dates that aren't in a known format, which is shared because creating it
+     * is expensive.
+     */
+    private static final Lazy<Parser> DATE_PARSER = new Lazy<>(Parser::new);
+
+    /**
+     * Find the date in a line of text.  Dates in ISO format or in the format of
+     * {@link Deck#DATE_FORMATTER} are found directly, and other dates are found using a
+     * general date parser only if the line looks like it might contain one.
+     *
+     * @param text text to search, which should be in lower case
+     * @return The first date found in the text, or today's date if there isn't one.
+     */
+    private static LocalDate findDate(String text)
+    {
+        Matcher iso = ISO_DATE_PATTERN.matcher(text);
+        while (iso.find())
+        {
+            try
+            {
+                return LocalDate.parse(iso.group());
+            }
+            catch (DateTimeParseException e)
+            {}
+        }
+        Matcher deck = DECK_DATE_PATTERN.matcher(text);
+        while (deck.find())
+        {
+            try
+            {
+                return LocalDate.parse(deck.group(), DECK_DATE_PARSER);
+            }
+            catch (DateTimeParseException e)
+            {}
+        }
+        if (DATE_HINT_PATTERN.matcher(text).find())
+        {
+            Parser parser = DATE_PARSER.get();
+            synchronized (parser)
+            {
+                var dates = parser.parse(text).stream().flatMap((g) -> g.getDates().stream()).findFirst();
+                if (dates.isPresent())
+                    return dates.get().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            }
+        }
+        return LocalDate.now();
+    }
 
     /**
      * Format to use for formatting a card list
@@ -53,10 +125,19 @@ public class TextCardListFormat implements CardListFormat
     }
 
     @Override
-    public String format(CardList list)
+    public void format(CardList list, Writer destination, IntConsumer progress) throws IOException
     {
-        return String.join(System.lineSeparator(),
-                list.stream().map((c) -> format.format(list.getEntry(c))).collect(Collectors.toList()));
+        var builder = new StringBuilder();
+        int written = 0;
+        for (Card card : list)
+        {
+            builder.setLength(0);
+            if (written > 0)
+                builder.append(System.lineSeparator());
+            format.format(list.getEntry(card), builder);
+            destination.append(builder);
+            progress.accept(++written);
+        }
     }
 
     @Override
@@ -75,11 +156,12 @@ public class TextCardListFormat implements CardListFormat
      */
     private void parseLine(Deck deck, String line) throws ParseException
     {
-        var possibilities = MainFrame.inventory().stream().filter((c) -> line.contains(c.unifiedName().toLowerCase()) || c.name().stream().anyMatch((n) -> line.contains(n.toLowerCase()))).collect(Collectors.toList());
+        var possibilities = MainFrame.inventory().printingsIn(line);
         if (possibilities.isEmpty())
             throw new ParseException("Can't parse card name from \"" + line.trim() + '"', 0);
 
-        var filtered = possibilities.stream().filter((c) -> line.contains(c.expansion().name.toLowerCase())).collect(Collectors.toList());
+        var expansions = MainFrame.inventory().expansionsIn(line);
+        var filtered = possibilities.stream().filter((c) -> expansions.contains(c.expansion())).collect(Collectors.toList());
         if (!filtered.isEmpty())
             possibilities = filtered;
         filtered = possibilities.stream().filter((c) -> !c.unifiedName().toLowerCase().equals(c.expansion().name.toLowerCase())).collect(Collectors.toList());
@@ -89,9 +171,15 @@ public class TextCardListFormat implements CardListFormat
         if (possibilities.size() > 1)
             System.err.println("Multiple matches for \"" + line.trim() + '"');
 
+        // Only look for a date in the parts of the line that aren't the card, its expansion, or its count,
+        // so words in names like "Tomorrow, Azami's Familiar" aren't mistaken for dates
+        Card card = possibilities.get(0);
         Matcher countMatcher = COUNT_PATTERN.matcher(line);
-        LocalDate date = new Parser().parse(line).stream().flatMap((g) -> g.getDates().stream()).findFirst().orElse(new Date()).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        deck.add(possibilities.get(0), countMatcher.find() ? Integer.parseInt(countMatcher.group().replace("x", "")) : 1, date);
+        int count = countMatcher.find() ? Integer.parseInt(countMatcher.group().replace("x", "")) : 1;
+        String rest = countMatcher.replaceFirst(" ").replace(card.unifiedName().toLowerCase(), " ").replace(card.expansion().name.toLowerCase(), " ");
+        for (String name : card.name())
+            rest = rest.replace(name.toLowerCase(), " ");
+        deck.add(card, count, findDate(rest));
     }
 
     @Override
@@ -0,0 +1,155 @@
+package editor.database.card;
+
+import java.util.List;
+
+import editor.database.attributes.Expansion;
+
+/**
+ * This class represents a card that keeps its attributes in its own fields.  Values
+ * {@link Card} derives from other attributes, like normalized text, are computed the first
+ * time they are requested and then kept.  Cards whose attributes are kept elsewhere, like
+ * {@link StoredCard}, extend {@link Card} directly instead so they don't carry these
+ * fields.
+ *
+ * @author Alec Roelke
+ */
+abstract class AbstractCard extends Card
+{
+    /**
+     * Expansion this Card belongs to.
+     */
+    private final Expansion expansion;
+    /**
+     * Number of faces this Card has.
+     */
+    private final int faces;
+    /**
+     * Whether or not to ignore the card count restriction for this Card.
+     */
+    private volatile Boolean ignoreCountRestriction;
+    /**
+     * Layout of this Card.
+     * @see CardLayout
+     */
+    private final CardLayout layout;
+    /**
+     * List of formats this Card is legal in.
+     */
+    private volatile List<String> legalIn;
+    /**
+     * If this Card is legendary, the name of the character or item depicted by it.  Otherwise,
+     * its normalized name.
+     */
+    private volatile List<String> legendName;
+    /**
+     * List of flavor texts of the faces of this Card, converted to lower case and with special
+     * characters removed.
+     */
+    private volatile List<String> normalizedFlavor;
+    /**
+     * All lower-case, normalized name of this Card with special characters removed.
+     */
+    private volatile List<String> normalizedName;
+    /**
+     * List of oracle texts of the faces of this Card, converted to lower case and with special
+     * characters removed.
+     */
+    private volatile List<String> normalizedOracle;
+    /**
+     * List of printed texts of the faces of this Card, converted to lower case and with special
+     * characers removed.
+     */
+    private volatile List<String> normalizedPrinted;
+
+    /**
+     * Create a new AbstractCard.
+     *
+     * @param expansion expension the new Card belongs to
+     * @param layout layout of the new Card
+     * @param faces number of faces the new Card has
+     */
+    public AbstractCard(Expansion expansion, CardLayout layout, int faces)
+    {
+        this.expansion = expansion;
+        this.layout = layout;
+        this.faces = faces;
+    }
+
+    @Override
+    public Expansion expansion()
+    {
+        return expansion;
+    }
+
+    @Override
+    public int faces()
+    {
+        return faces;
+    }
+
+    @Override
+    public boolean ignoreCountRestriction()
+    {
+        if (ignoreCountRestriction == null)
+            ignoreCountRestriction = super.ignoreCountRestriction();
+        return ignoreCountRestriction;
+    }
+
+    @Override
+    public CardLayout layout()
+    {
+        return layout;
+    }
+
+    @Override
+    public List<String> legalIn()
+    {
+        if (legalIn == null)
+            legalIn = super.legalIn();
+        return legalIn;
+    }
+
+    @Override
+    public List<String> legendName()
+    {
+        if (legendName == null)
+            legendName = super.legendName();
+        return legendName;
+    }
+
+    @Override
+    public List<String> normalizedFlavor()
+    {
+        if (detailsStored())
+            return super.normalizedFlavor();
+        if (normalizedFlavor == null)
+            normalizedFlavor = super.normalizedFlavor();
+        return normalizedFlavor;
+    }
+
+    @Override
+    public List<String> normalizedName()
+    {
+        if (normalizedName == null)
+            normalizedName = super.normalizedName();
+        return normalizedName;
+    }
+
+    @Override
+    public List<String> normalizedOracle()
+    {
+        if (normalizedOracle == null)
+            normalizedOracle = super.normalizedOracle();
+        return normalizedOracle;
+    }
+
+    @Override
+    public List<String> normalizedPrinted()
+    {
+        if (detailsStored())
+            return super.normalizedPrinted();
+        if (normalizedPrinted == null)
+            normalizedPrinted = super.normalizedPrinted();
+        return normalizedPrinted;
+    }
+}
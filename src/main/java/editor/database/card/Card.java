@@ -28,14 +28,18 @@ import editor.database.attributes.Rarity;
 import editor.database.symbol.FunctionalSymbol;
 import editor.database.symbol.Symbol;
 import editor.gui.generic.ComponentUtils;
-import editor.util.Lazy;
+import editor.util.Interner;
 import editor.util.UnicodeSymbols;
 
 /**
  * This interface represents an abstract Card with various characteristics.  Each card can be uniquely
  * identified by the set it is in, its name, and its image name (which is its name followed by a
  * number if there is more than one version of the same card in the same set).  All of its values are constant.
+ * <p>
+ * Card has no fields of its own, so values it derives from other attributes, like normalized
+ * text, are computed each time they are requested unless a subclass keeps them.
  *
+ * @see CardStore
  * @author Alec Roelke
  */
 public abstract class Card
@@ -67,114 +71,6 @@ public abstract class Card
         return tags.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
     }
 
-    /**
-     * Expansion this Card belongs to.
-     */
-    private final Expansion expansion;
-    /**
-     * Number of faces this Card has.
-     */
-    private final int faces;
-    /**
-     * Whether or not to ignore the card count restriction for this Card.
-     */
-    private Lazy<Boolean> ignoreCountRestriction;
-    /**
-     * Layout of this Card.
-     * @see CardLayout
-     */
-    private final CardLayout layout;
-    /**
-     * List of formats this Card is legal in.
-     */
-    private Lazy<List<String>> legalIn;
-    /**
-     * If this Card is legendary, the name of the character or item depicted by it.  Otherwise,
-     * its normalized name.
-     */
-    private Lazy<List<String>> legendName;
-    /**
-     * List of flavor texts of the faces of this Card, converted to lower case and with special
-     * characters removed.
-     */
-    private Lazy<List<String>> normalizedFlavor;
-    /**
-     * All lower-case, normalized name of this Card with special characters removed.
-     */
-    private Lazy<List<String>> normalizedName;
-    /**
-     * List of oracle texts of the faces of this Card, converted to lower case and with special
-     * characters removed.
-     */
-    private Lazy<List<String>> normalizedOracle;
-    /**
-     * List of printed texts of the faces of this Card, converted to lower case and with special
-     * characers removed.
-     */
-    private Lazy<List<String>> normalizedPrinted;
-
-    /**
-     * Create a new Card.  Most of the parameters are assigned lazily; that is, only
-     * the first time their values are requested.
-     *
-     * @param expansion expension the new Card belongs to
-     * @param layout layout of the new Card
-     * @param faces number of faces the new Card has
-     */
-    public Card(Expansion expansion, CardLayout layout, int faces)
-    {
-        this.expansion = expansion;
-        this.layout = layout;
-        this.faces = faces;
-
-        normalizedName = new Lazy<>(() -> Collections.unmodifiableList(name().stream().map(UnicodeSymbols::normalize).collect(Collectors.toList())));
-        legendName = new Lazy<>(() -> {
-            var legendNames = new ArrayList<String>();
-            for (String fullName : normalizedName())
-            {
-                if (!supertypes().contains("Legendary"))
-                    legendNames.add(fullName);
-                else
-                {
-                    int comma = fullName.indexOf(',');
-                    if (comma > 0)
-                        legendNames.add(fullName.substring(0, comma).trim());
-                    else
-                    {
-                        int the = fullName.indexOf("the ");
-                        if (the == 0)
-                            legendNames.add(fullName);
-                        else if (the > 0)
-                            legendNames.add(fullName.substring(0, the).trim());
-                        else
-                        {
-                            int of = fullName.indexOf("of ");
-                            if (of > 0)
-                                legendNames.add(fullName.substring(0, of).trim());
-                            else
-                                legendNames.add(fullName);
-                        }
-                    }
-                }
-            }
-            return Collections.unmodifiableList(legendNames);
-        });
-        normalizedOracle = new Lazy<>(() -> {
-            var texts = new ArrayList<String>(faces);
-            for (int i = 0; i < faces; i++)
-            {
-                String normal = UnicodeSymbols.normalize(oracleText().get(i).toLowerCase());
-                normal = normal.replace(legendName().get(i), Card.THIS).replace(normalizedName().get(i), Card.THIS);
-                texts.add(normal);
-            }
-            return Collections.unmodifiableList(texts);
-        });
-        normalizedFlavor = new Lazy<>(() -> Collections.unmodifiableList(flavorText().stream().map(UnicodeSymbols::normalize).collect(Collectors.toList())));
-        normalizedPrinted = new Lazy<>(() -> Collections.unmodifiableList(printedText().stream().map(UnicodeSymbols::normalize).collect(Collectors.toList())));
-        legalIn = new Lazy<>(() -> Collections.unmodifiableList(legality().keySet().stream().filter((l) -> legalityIn(l).isLegal).collect(Collectors.toList())));
-        ignoreCountRestriction = new Lazy<>(() -> supertypeContains("basic") || oracleText().stream().map(String::toLowerCase).anyMatch((s) -> s.contains("a deck can have any number")));
-    }
-
     /**
      * Get all of this Card's supertypes, card types, and subtypes.
      *
@@ -197,6 +93,17 @@ public abstract class Card
      */
     public abstract List<Double> cmc();
 
+    /**
+     * Get the converted mana cost of one of this Card's faces without boxing it.
+     *
+     * @param face index of the face to get the converted mana cost of
+     * @return the converted mana cost of the given face.
+     */
+    public double cmc(int face)
+    {
+        return cmc().get(face);
+    }
+
     /**
      * Get this Card's color identity, which is comprised of its its colors and colors of any
      * mana symbols that appear in its rules text that is not reminder text, and in abilities that
@@ -249,19 +156,26 @@ public abstract class Card
      *
      * @return the expansion this Card belongs to.
      */
-    public Expansion expansion()
-    {
-        return expansion;
-    }
+    public abstract Expansion expansion();
 
     /**
      * Get the number of faces this Card has.
      *
      * @return the number of faces
      */
-    public int faces()
+    public abstract int faces();
+
+    /**
+     * Determine if this Card's flavor text, printed text, and rulings are kept in storage
+     * rather than in memory.  If they are, values derived from them aren't kept either.
+     *
+     * @return <code>true</code> if the details of any of this Card's faces are kept in
+     * storage, and <code>false</code> otherwise.
+     * @see CardDetails.Holder
+     */
+    public boolean detailsStored()
     {
-        return faces;
+        return false;
     }
 
     /**
@@ -283,10 +197,10 @@ public abstract class Card
         Style textStyle = document.getStyle("text");
         try
         {
-            for (int f = 0; f < faces; f++)
+            for (int f = 0; f < faces(); f++)
             {
                 formatDocument(document, printed, f);
-                if (f < faces - 1)
+                if (f < faces() - 1)
                     document.insertString(document.getLength(), "\n" + TEXT_SEPARATOR + "\n", textStyle);
             }
         }
@@ -342,7 +256,7 @@ public abstract class Card
                 document.insertString(document.getLength(), printedTypes().get(f) + '\n', textStyle);
             else
                 document.insertString(document.getLength(), typeLine().get(f) + '\n', textStyle);
-            document.insertString(document.getLength(), expansion.name + ' ' + rarity() + '\n', textStyle);
+            document.insertString(document.getLength(), expansion().name + ' ' + rarity() + '\n', textStyle);
 
             String abilities = (printed ? printedText() : oracleText()).get(f);
             if (!abilities.isEmpty())
@@ -460,7 +374,7 @@ public abstract class Card
             else if (loyalty().get(f).exists())
                 document.insertString(document.getLength(), loyalty().get(f) + "\n", textStyle);
 
-            document.insertString(document.getLength(), artist().get(f) + " " + number().get(f) + "/" + expansion.count, textStyle);
+            document.insertString(document.getLength(), artist().get(f) + " " + number().get(f) + "/" + expansion().count, textStyle);
         }
         catch (BadLocationException e)
         {
@@ -482,7 +396,7 @@ public abstract class Card
      */
     public boolean ignoreCountRestriction()
     {
-        return ignoreCountRestriction.get();
+        return supertypeContains("basic") || oracleText().stream().map(String::toLowerCase).anyMatch((s) -> s.contains("a deck can have any number"));
     }
 
     /**
@@ -502,10 +416,7 @@ public abstract class Card
      *
      * @return this Card's layout.
      */
-    public CardLayout layout()
-    {
-        return layout;
-    }
+    public abstract CardLayout layout();
 
     /**
      * Get the formats this Card is legal in.
@@ -514,7 +425,7 @@ public abstract class Card
      */
     public List<String> legalIn()
     {
-        return legalIn.get();
+        return Collections.unmodifiableList(legality().keySet().stream().filter((l) -> legalityIn(l).isLegal).collect(Collectors.toList()));
     }
 
     /**
@@ -546,7 +457,35 @@ public abstract class Card
      */
     public List<String> legendName()
     {
-        return legendName.get();
+        var legendNames = new ArrayList<String>();
+        for (String fullName : normalizedName())
+        {
+            if (!supertypes().contains("Legendary"))
+                legendNames.add(fullName);
+            else
+            {
+                int comma = fullName.indexOf(',');
+                if (comma > 0)
+                    legendNames.add(fullName.substring(0, comma).trim());
+                else
+                {
+                    int the = fullName.indexOf("the ");
+                    if (the == 0)
+                        legendNames.add(fullName);
+                    else if (the > 0)
+                        legendNames.add(fullName.substring(0, the).trim());
+                    else
+                    {
+                        int of = fullName.indexOf("of ");
+                        if (of > 0)
+                            legendNames.add(fullName.substring(0, of).trim());
+                        else
+                            legendNames.add(fullName);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(legendNames);
     }
 
     /**
@@ -600,7 +539,9 @@ public abstract class Card
      */
     public List<String> normalizedFlavor()
     {
-        return normalizedFlavor.get();
+        if (detailsStored())
+            return Collections.unmodifiableList(flavorText().stream().map(UnicodeSymbols::normalize).collect(Collectors.toList()));
+        return Collections.unmodifiableList(flavorText().stream().map(UnicodeSymbols::normalize).map(Interner.STRINGS::intern).collect(Collectors.toList()));
     }
 
     /**
@@ -611,7 +552,7 @@ public abstract class Card
      */
     public List<String> normalizedName()
     {
-        return normalizedName.get();
+        return Collections.unmodifiableList(name().stream().map(UnicodeSymbols::normalize).map(Interner.STRINGS::intern).collect(Collectors.toList()));
     }
 
     /**
@@ -622,7 +563,14 @@ public abstract class Card
      */
     public List<String> normalizedOracle()
     {
-        return normalizedOracle.get();
+        var texts = new ArrayList<String>(faces());
+        for (int i = 0; i < faces(); i++)
+        {
+            String normal = UnicodeSymbols.normalize(oracleText().get(i).toLowerCase());
+            normal = normal.replace(legendName().get(i), Card.THIS).replace(normalizedName().get(i), Card.THIS);
+            texts.add(Interner.STRINGS.intern(normal));
+        }
+        return Collections.unmodifiableList(texts);
     }
 
     /**
@@ -633,7 +581,9 @@ public abstract class Card
      */
     public List<String> normalizedPrinted()
     {
-        return normalizedPrinted.get();
+        if (detailsStored())
+            return Collections.unmodifiableList(printedText().stream().map(UnicodeSymbols::normalize).collect(Collectors.toList()));
+        return Collections.unmodifiableList(printedText().stream().map(UnicodeSymbols::normalize).map(Interner.STRINGS::intern).collect(Collectors.toList()));
     }
 
     /**
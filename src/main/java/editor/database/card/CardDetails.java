@@ -0,0 +1,144 @@
+package editor.database.card;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the parts of a single-faced card that are only needed when
+ * showing it in detail:  its flavor text, printed text, and rulings.  They can be kept
+ * out of memory in a {@link Store} and read back when they're needed.
+ *
+ * @author Alec Roelke
+ */
+public class CardDetails implements DetailsSource
+{
+    /**
+     * Details to use when a card's can't be read.
+     */
+    public static final CardDetails EMPTY = new CardDetails("", "", Collections.emptyMap());
+
+    /**
+     * Storage for card details outside of memory.
+     *
+     * @author Alec Roelke
+     */
+    @FunctionalInterface
+    public interface Store
+    {
+        /**
+         * Read the details of a card.
+         *
+         * @param position position of the card's details in the store
+         * @return The details of the card, or {@link CardDetails#EMPTY} if they can't be
+         * read.
+         */
+        CardDetails read(int position);
+    }
+
+    /**
+     * A card whose details can be moved out of memory into a {@link Store}.
+     *
+     * @author Alec Roelke
+     */
+    public interface Holder
+    {
+        /**
+         * Get the card's flavor text, printed text, and rulings, reading them from storage
+         * if they aren't in memory.
+         *
+         * @return The card's details.
+         */
+        CardDetails details();
+
+        /**
+         * @return <code>true</code> if the card's details are kept in storage rather than in
+         * memory, and <code>false</code> otherwise.
+         */
+        boolean detailsStored();
+
+        /**
+         * @return The storage containing the card's details, or null if they're kept in
+         * memory.
+         */
+        Store detailsStore();
+
+        /**
+         * Stop keeping the card's details in memory and read them from storage whenever
+         * they're needed instead.  Other threads can keep reading the card's details while
+         * this happens.
+         *
+         * @param s storage containing the details
+         * @param p position of the details in the storage
+         */
+        void storeDetails(Store s, int p);
+    }
+
+    /**
+     * Position of a card's details in a {@link Store}.  The storage and position are kept
+     * together so a card's details can be moved to other storage while other threads are
+     * reading them without those threads seeing the new position in the old storage.
+     *
+     * @author Alec Roelke
+     */
+    static final class Location implements DetailsSource
+    {
+        /** Storage containing the details. */
+        public final Store store;
+        /** Position of the details in {@link #store}. */
+        public final int position;
+
+        /**
+         * Create a new Location.
+         *
+         * @param s storage containing the details
+         * @param p position of the details in the storage
+         */
+        public Location(Store s, int p)
+        {
+            store = s;
+            position = p;
+        }
+
+        /**
+         * @return The details at this Location.
+         */
+        @Override
+        public CardDetails read()
+        {
+            return store.read(position);
+        }
+    }
+
+    /** Flavor text of the card. */
+    public final String flavor;
+    /** Text printed on the card. */
+    public final String printed;
+    /** Rulings of the card and the dates they were made. */
+    public final Map<Date, List<String>> rulings;
+
+    /**
+     * Create a new CardDetails.
+     *
+     * @param f flavor text
+     * @param p printed text
+     * @param r rulings by date
+     */
+    public CardDetails(String f, String p, Map<Date, List<String>> r)
+    {
+        flavor = f;
+        printed = p;
+        rulings = Collections.unmodifiableMap(r);
+    }
+
+    /**
+     * {@inheritDoc}
+     * These details are in memory, so they are returned as they are.
+     */
+    @Override
+    public CardDetails read()
+    {
+        return this;
+    }
+}
@@ -1,7 +1,9 @@
 package editor.database.card;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -77,15 +79,53 @@ public class CardFormat
      * Format specifier for a card.
      */
     public final String format;
+    /**
+     * Text between the format specifiers in {@link #format}.  There is one more of these
+     * than there are specifiers, and each one comes before the specifier with the same
+     * index.
+     */
+    private final String[] literals;
+    /**
+     * Attributes of the format specifiers in {@link #format}, in order.
+     */
+    private final CardAttribute[] attributes;
 
     /**
-     * Create a new CardFormat.
+     * Create a new CardFormat.  The format specifier is split into the specifiers and the
+     * text between them once, so formatting a card only has to look at the attributes
+     * that are used.
      *
      * @param pattern format specifier for a card
      */
     public CardFormat(String pattern)
     {
         format = pattern;
+
+        var specifiers = new HashMap<String, CardAttribute>();
+        for (CardAttribute type : CardAttribute.displayableValues())
+            specifiers.put(type.toString().toLowerCase(), type);
+
+        var text = new ArrayList<String>();
+        var types = new ArrayList<CardAttribute>();
+        var literal = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length())
+        {
+            int close;
+            CardAttribute type;
+            if (pattern.charAt(i) == '{' && (close = pattern.indexOf('}', i)) > 0 && (type = specifiers.get(pattern.substring(i + 1, close))) != null)
+            {
+                text.add(literal.toString());
+                types.add(type);
+                literal.setLength(0);
+                i = close + 1;
+            }
+            else
+                literal.append(pattern.charAt(i++));
+        }
+        text.add(literal.toString());
+        literals = text.toArray(String[]::new);
+        attributes = types.toArray(CardAttribute[]::new);
     }
 
     /**
@@ -112,28 +152,64 @@ public class CardFormat
      */
     public String format(CardList.Entry card)
     {
-        String pattern = format;
-        for (CardAttribute type : CardAttribute.displayableValues())
+        return format(card, new StringBuilder()).toString();
+    }
+
+    /**
+     * Format a card using this CardFormat's format specifier and add it to the end
+     * of a StringBuilder.  Deck-dependent values will be taken from the entry provided.
+     *
+     * @param card entry for the card to format
+     * @param builder StringBuilder to add the formatted card to
+     * @return the StringBuilder.
+     */
+    public StringBuilder format(CardList.Entry card, StringBuilder builder)
+    {
+        builder.append(literals[0]);
+        for (int i = 0; i < attributes.length; i++)
         {
-            String replacement = '{' + type.toString().toLowerCase() + '}';
-            pattern = pattern.replace(replacement, switch (type) {
-                case MANA_COST, POWER, TOUGHNESS, LOYALTY -> String.join(Card.FACE_SEPARATOR,
-                    ((List<?>)card.get(type)).stream().map(String::valueOf).collect(Collectors.toList()));
-                case CMC -> String.join(Card.FACE_SEPARATOR,
-                    CollectionUtils.convertToList(card.get(type), Double.class).stream().map((n) -> {
-                        if (n == n.intValue())
-                            return Integer.toString(n.intValue());
+            Object value = card.get(attributes[i]);
+            switch (attributes[i])
+            {
+                case MANA_COST, POWER, TOUGHNESS, LOYALTY -> join(builder, Card.FACE_SEPARATOR, (List<?>)value);
+                case CMC -> {
+                    var cmc = CollectionUtils.convertToList(value, Double.class);
+                    for (int j = 0; j < cmc.size(); j++)
+                    {
+                        if (j > 0)
+                            builder.append(Card.FACE_SEPARATOR);
+                        double n = cmc.get(j);
+                        if (n == (int)n)
+                            builder.append((int)n);
                         else
-                            return n.toString();
-                    }).collect(Collectors.toList()));
-                case COLORS, COLOR_IDENTITY -> String.join(",",
-                    ((List<?>)card.get(type)).stream().map(String::valueOf).collect(Collectors.toList()));
-                case CATEGORIES -> String.join(",",
-                    CollectionUtils.convertToSet(card.get(type), CategorySpec.class).stream().map(CategorySpec::getName).sorted().collect(Collectors.toList()));
-                case DATE_ADDED -> Deck.DATE_FORMATTER.format((LocalDate)card.get(type));
-                default -> String.valueOf(card.get(type));
-            });
+                            builder.append(n);
+                    }
+                }
+                case COLORS, COLOR_IDENTITY -> join(builder, ",", (List<?>)value);
+                case CATEGORIES -> join(builder, ",", CollectionUtils.convertToSet(value, CategorySpec.class).stream().map(CategorySpec::getName).sorted().collect(Collectors.toList()));
+                case DATE_ADDED -> Deck.DATE_FORMATTER.formatTo((LocalDate)value, builder);
+                default -> builder.append(value);
+            }
+            builder.append(literals[i + 1]);
+        }
+        return builder;
+    }
+
+    /**
+     * Add the String values of a list of objects to the end of a StringBuilder with a
+     * separator between them.
+     *
+     * @param builder StringBuilder to add to
+     * @param separator separator between values
+     * @param values values to add
+     */
+    private static void join(StringBuilder builder, String separator, List<?> values)
+    {
+        for (int i = 0; i < values.size(); i++)
+        {
+            if (i > 0)
+                builder.append(separator);
+            builder.append(values.get(i));
         }
-        return pattern;
     }
 }
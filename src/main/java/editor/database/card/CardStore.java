@@ -0,0 +1,405 @@
+package editor.database.card;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+import editor.database.attributes.CombatStat;
+import editor.database.attributes.Expansion;
+import editor.database.attributes.Legality;
+import editor.database.attributes.Loyalty;
+import editor.database.attributes.ManaCost;
+import editor.database.attributes.ManaType;
+import editor.database.attributes.Rarity;
+
+/**
+ * This class stores the attributes of many single-faced cards in parallel arrays with one
+ * element per card, rather than in one object per card.  Each card is represented by a
+ * {@link StoredCard}, which only knows its position in the arrays, so it takes up much
+ * less memory than a {@link SingleCard} with the same attributes.
+ *
+ * Attributes that few cards differ in, like colors, types, and legality, are stored as
+ * codes into a table of their distinct values, so all cards with the same value share one
+ * copy of it.  Numeric attributes are stored as primitives.  Everything else is stored as
+ * a reference to the value the original card had, which for text is usually already
+ * shared with other cards.  Text isn't coded into a table like the other attributes,
+ * because a code takes as much space as a (compressed) reference and most text is unique
+ * to one card anyway.
+ * <p>
+ * Filters test StoredCards through the {@link Card} methods like any other card rather
+ * than scanning these arrays, so there is only one way for each filter to test cards.
+ *
+ * @author Alec Roelke
+ */
+public class CardStore
+{
+    /**
+     * Rarities indexed by ordinal.
+     */
+    private static final Rarity[] RARITIES = Rarity.values();
+    /**
+     * Layouts indexed by ordinal.
+     */
+    private static final CardLayout[] LAYOUTS = CardLayout.values();
+
+    /**
+     * Table of the distinct values of an attribute, each of which has an integer code
+     * that is its position in the table.
+     *
+     * @param <T> type of attribute value
+     * @author Alec Roelke
+     */
+    private static class Table<T>
+    {
+        /** Distinct values, indexed by code. */
+        public final List<T> values;
+        /** Codes of the values that have been added, by key. */
+        private final Map<Object, Integer> codes;
+
+        /**
+         * Create a new, empty Table.
+         */
+        public Table()
+        {
+            values = new ArrayList<>();
+            codes = new HashMap<>();
+        }
+
+        /**
+         * Get the code for a value, adding it to the table if there isn't one equal to it
+         * yet.
+         *
+         * @param key object identifying the value; values with equal keys share a code
+         * @param value value to add
+         * @return The code for the value.
+         */
+        public int code(Object key, T value)
+        {
+            return codes.computeIfAbsent(key, (k) -> {
+                values.add(value);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Determine if a card can be replaced by one backed by a CardStore.
+     *
+     * @param card card to check
+     * @return <code>true</code> if the card is a {@link SingleCard} or is already backed
+     * by a CardStore, and <code>false</code> otherwise.
+     */
+    private static boolean compactable(Card card)
+    {
+        return card instanceof SingleCard || card instanceof StoredCard;
+    }
+
+    /**
+     * Replace the single-faced cards in a collection with cards backed by a new CardStore.
+     * Cards that are already backed by another store (like cards kept from an inventory
+     * that is being replaced) are copied into the new one, so the list doesn't keep the
+     * old store in memory.  Details that are in storage are read back into memory, so
+     * they should be moved out of it again afterward.  Other cards, including the faces
+     * of multi-faced cards, are kept as they are.
+     *
+     * @param cards cards to compact
+     * @return A list containing the same cards in the same order, with each
+     * compactable card replaced by an equal {@link StoredCard}.
+     */
+    public static List<Card> compact(Collection<Card> cards)
+    {
+        var singles = new ArrayList<Card>();
+        for (Card card : cards)
+            if (compactable(card))
+                singles.add(card);
+
+        var store = new CardStore(singles);
+        var compacted = new ArrayList<Card>(cards.size());
+        int i = 0;
+        for (Card card : cards)
+        {
+            if (compactable(card))
+            {
+                compacted.add(new StoredCard(store, i));
+                i++;
+            }
+            else
+                compacted.add(card);
+        }
+        return compacted;
+    }
+
+    /** Codes of the expansions of the cards in {@link #expansionTable}. */
+    final int[] expansion;
+    /** Distinct expansions. */
+    final List<Expansion> expansionTable;
+    /** Ordinals of the layouts of the cards. */
+    final byte[] layout;
+    /** Names of the cards. */
+    final String[] name;
+    /** Mana costs of the cards. */
+    final ManaCost[] mana;
+    /** Mana values of the cards. */
+    final double[] cmc;
+    /** Codes of the colors of the cards in {@link #colorTable}. */
+    final int[] colors;
+    /** Codes of the color identities of the cards in {@link #colorTable}. */
+    final int[] colorIdentity;
+    /** Distinct colors and color identities. */
+    final List<List<ManaType>> colorTable;
+    /** Codes of the supertypes of the cards in {@link #typeTable}. */
+    final int[] supertypes;
+    /** Codes of the card types of the cards in {@link #typeTable}. */
+    final int[] types;
+    /** Codes of the subtypes of the cards in {@link #typeTable}. */
+    final int[] subtypes;
+    /** Codes of the combined supertypes, card types, and subtypes of the cards in {@link #typeTable}. */
+    final int[] allTypes;
+    /** Distinct sets of types. */
+    final List<Set<String>> typeTable;
+    /** Whether or not each card is a land. */
+    final BitSet land;
+    /** Type lines of the cards. */
+    final String[] typeLine;
+    /** Printed type lines of the cards. */
+    final String[] printedTypes;
+    /** Ordinals of the rarities of the cards. */
+    final byte[] rarity;
+    /** Rules text of the cards. */
+    final String[] text;
+    /**
+     * Flavor text, printed text, and rulings of the cards, or their locations for cards whose
+     * details are stored elsewhere.  Each card's are replaced in a single write, so other
+     * threads reading them while they're moved either see all of them or where they went.
+     */
+    private final AtomicReferenceArray<DetailsSource> details;
+    /** Artists of the cards. */
+    final String[] artist;
+    /** Multiverse IDs of the cards. */
+    final int[] multiverseid;
+    /** Scryfall IDs of the cards. */
+    final String[] scryfallid;
+    /** Collector's numbers of the cards. */
+    final String[] number;
+    /** Powers of the cards. */
+    final CombatStat[] power;
+    /** Toughnesses of the cards. */
+    final CombatStat[] toughness;
+    /** Loyalties of the cards. */
+    final Loyalty[] loyalty;
+    /** Codes of the legalities of the cards in {@link #legalityTable}. */
+    final int[] legality;
+    /** Distinct format legalities. */
+    final List<Map<String, Legality>> legalityTable;
+    /** Formats each entry in {@link #legalityTable} is legal in. */
+    final List<List<String>> legalInTable;
+    /** Whether or not each card ignores the restriction on card counts in decks. */
+    final BitSet ignoreCountRestriction;
+    /** Codes of the formats each card can be commander in in {@link #commandTable}. */
+    final int[] commandFormats;
+    /** Distinct lists of commander formats. */
+    final List<List<String>> commandTable;
+    /** Image names of the cards. */
+    final String[] imageName;
+    /*
+     * Values derived from the cards' other attributes, which are null until they're first
+     * requested.  Like String#hashCode, they aren't synchronized, since two threads that
+     * compute the same value at once get equal results and the lists are immutable.
+     */
+    /** Legend names of the cards. */
+    final List<String>[] legendName;
+    /** Normalized names of the cards. */
+    final List<String>[] normalizedName;
+    /** Normalized rules text of the cards. */
+    final List<String>[] normalizedOracle;
+    /** Normalized flavor text of the cards whose details are in memory. */
+    final List<String>[] normalizedFlavor;
+    /** Normalized printed text of the cards whose details are in memory. */
+    final List<String>[] normalizedPrinted;
+
+    /**
+     * Create a new CardStore containing the attributes of some single-faced cards.
+     *
+     * @param cards cards to store, in the order of their positions in the store, which
+     * should each be {@link #compactable(Card) compactable}
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CardStore(List<Card> cards)
+    {
+        int n = cards.size();
+        expansion = new int[n];
+        expansionTable = new ArrayList<>();
+        layout = new byte[n];
+        name = new String[n];
+        mana = new ManaCost[n];
+        cmc = new double[n];
+        colors = new int[n];
+        colorIdentity = new int[n];
+        supertypes = new int[n];
+        types = new int[n];
+        subtypes = new int[n];
+        allTypes = new int[n];
+        land = new BitSet(n);
+        typeLine = new String[n];
+        printedTypes = new String[n];
+        rarity = new byte[n];
+        text = new String[n];
+        details = new AtomicReferenceArray<>(n);
+        artist = new String[n];
+        multiverseid = new int[n];
+        scryfallid = new String[n];
+        number = new String[n];
+        power = new CombatStat[n];
+        toughness = new CombatStat[n];
+        loyalty = new Loyalty[n];
+        legality = new int[n];
+        commandFormats = new int[n];
+        imageName = new String[n];
+        ignoreCountRestriction = new BitSet(n);
+        legendName = new List[n];
+        normalizedName = new List[n];
+        normalizedOracle = new List[n];
+        normalizedFlavor = new List[n];
+        normalizedPrinted = new List[n];
+
+        var colorCodes = new Table<List<ManaType>>();
+        var typeCodes = new Table<Set<String>>();
+        var legalityCodes = new Table<Map<String, Legality>>();
+        var commandCodes = new Table<List<String>>();
+        // Expansions are compared by name, but cards should keep the ones they had
+        var expansionCodes = new IdentityHashMap<Expansion, Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            Card card = cards.get(i);
+            expansion[i] = expansionCodes.computeIfAbsent(card.expansion(), (e) -> {
+                expansionTable.add(e);
+                return expansionTable.size() - 1;
+            });
+            layout[i] = (byte)card.layout().ordinal();
+            name[i] = card.name().get(0);
+            mana[i] = card.manaCost().get(0);
+            cmc[i] = card.cmc().get(0);
+            colors[i] = colorCodes.code(card.colors(), card.colors());
+            colorIdentity[i] = colorCodes.code(card.colorIdentity(), card.colorIdentity());
+            // Sets are keyed by their iteration order so sharing one doesn't change how it's shown
+            supertypes[i] = typeCodes.code(new ArrayList<>(card.supertypes()), card.supertypes());
+            types[i] = typeCodes.code(new ArrayList<>(card.types()), card.types());
+            subtypes[i] = typeCodes.code(new ArrayList<>(card.subtypes()), card.subtypes());
+            allTypes[i] = typeCodes.code(new ArrayList<>(card.allTypes().get(0)), card.allTypes().get(0));
+            land.set(i, card.isLand());
+            typeLine[i] = card.typeLine().get(0);
+            printedTypes[i] = card.printedTypes().get(0);
+            rarity[i] = (byte)card.rarity().ordinal();
+            text[i] = card.oracleText().get(0);
+            artist[i] = card.artist().get(0);
+            multiverseid[i] = card.multiverseid().get(0);
+            scryfallid[i] = card.scryfallid().get(0);
+            number[i] = card.number().get(0);
+            power[i] = card.power().get(0);
+            toughness[i] = card.toughness().get(0);
+            loyalty[i] = card.loyalty().get(0);
+            legality[i] = legalityCodes.code(new ArrayList<>(card.legality().entrySet()), card.legality());
+            commandFormats[i] = commandCodes.code(card.commandFormats(), card.commandFormats());
+            imageName[i] = card.imageNames().get(0);
+            ignoreCountRestriction.set(i, card.ignoreCountRestriction());
+            details.set(i, new CardDetails(card.flavorText().get(0), card.printedText().get(0), card.rulings().isEmpty() ? Collections.emptyMap() : card.rulings()));
+        }
+        colorTable = colorCodes.values;
+        typeTable = typeCodes.values;
+        legalityTable = legalityCodes.values;
+        legalInTable = new ArrayList<>(legalityTable.size());
+        for (var legalities : legalityTable)
+            legalInTable.add(Collections.unmodifiableList(legalities.keySet().stream().filter((l) -> legalities.get(l).isLegal).collect(Collectors.toList())));
+        commandTable = commandCodes.values;
+    }
+
+    /**
+     * @return The number of cards in this CardStore.
+     */
+    public int size()
+    {
+        return name.length;
+    }
+
+    /**
+     * Get the rarity of a card.
+     *
+     * @param i position of the card
+     * @return The card's rarity.
+     */
+    Rarity rarity(int i)
+    {
+        return RARITIES[rarity[i]];
+    }
+
+    /**
+     * Get the layout of a card.
+     *
+     * @param i position of the card
+     * @return The card's layout.
+     */
+    CardLayout layout(int i)
+    {
+        return LAYOUTS[layout[i]];
+    }
+
+    /**
+     * Get the details of a card, reading them from storage if they aren't in memory.
+     *
+     * @param i position of the card
+     * @return The card's details.
+     */
+    CardDetails details(int i)
+    {
+        return details.get(i).read();
+    }
+
+    /**
+     * Determine if a card's details are kept in storage rather than in memory.
+     *
+     * @param i position of the card
+     * @return <code>true</code> if the card's details are in storage, and <code>false</code>
+     * otherwise.
+     */
+    boolean detailsStored(int i)
+    {
+        return details.get(i) instanceof CardDetails.Location;
+    }
+
+    /**
+     * Get the storage containing a card's details.
+     *
+     * @param i position of the card
+     * @return The storage containing the card's details, or null if they're in memory.
+     * @see CardDetails.Holder#detailsStore()
+     */
+    CardDetails.Store detailsStore(int i)
+    {
+        var source = details.get(i);
+        return source instanceof CardDetails.Location ? ((CardDetails.Location)source).store : null;
+    }
+
+    /**
+     * Stop keeping a card's details in memory and read them from storage whenever they're
+     * needed instead.
+     *
+     * @param i position of the card
+     * @param s storage containing the details
+     * @param p position of the details in the storage
+     * @see CardDetails.Holder#storeDetails(CardDetails.Store, int)
+     */
+    void storeDetails(int i, CardDetails.Store s, int p)
+    {
+        details.set(i, new CardDetails.Location(s, p));
+        normalizedFlavor[i] = null;
+        normalizedPrinted[i] = null;
+    }
+}
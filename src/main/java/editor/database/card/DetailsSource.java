@@ -0,0 +1,17 @@
+package editor.database.card;
+
+/**
+ * Where a card's details can be read from:  either the {@link CardDetails} themselves, if
+ * they're in memory, or their {@link CardDetails.Location} in a {@link CardDetails.Store}.
+ * Keeping a card's details in one reference of this type lets them be moved out of memory
+ * with a single write.
+ *
+ * @author Alec Roelke
+ */
+interface DetailsSource
+{
+    /**
+     * @return The details of the card.
+     */
+    CardDetails read();
+}
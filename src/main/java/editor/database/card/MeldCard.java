@@ -100,4 +100,14 @@ public class MeldCard extends MultiCard
     {
         return manaCost.get();
     }
+
+    /**
+     * Get the card this MeldCard melds with.
+     *
+     * @return this MeldCard's "sibling" front face.
+     */
+    public Card sibling()
+    {
+        return other;
+    }
 }
@@ -25,7 +25,7 @@ import editor.util.Lazy;
  *
  * @author Alec Roelke
  */
-public abstract class MultiCard extends Card
+public abstract class MultiCard extends AbstractCard
 {
     /**
      * List containing the set of types for each of this MultiCard's faces.
@@ -55,10 +55,6 @@ public abstract class MultiCard extends Card
      * List of Cards that represent faces.  They should all have exactly one face.
      */
     private List<? extends Card> faces;
-    /**
-     * List containing the flavor text of each of this MultiCard's faces.
-     */
-    private Lazy<List<String>> flavorText;
     /**
      * List containing the image name of each of this MultiCard's faces.
      */
@@ -100,10 +96,6 @@ public abstract class MultiCard extends Card
      * Tuple containing the power of each of this MultiCard's faces.
      */
     private Lazy<List<CombatStat>> power;
-    /**
-     * List containing the printed text of each of this MultiCard's faces.
-     */
-    private Lazy<List<String>> printedText;
     /**
      * List containing the printed type lines of each of this MultiCard's faces.
      */
@@ -190,8 +182,6 @@ public abstract class MultiCard extends Card
         typeLine = new Lazy<>(() -> collect(Card::typeLine));
         printedTypes = new Lazy<>(() -> collect(Card::printedTypes));
         oracleText = new Lazy<>(() -> collect(Card::oracleText));
-        flavorText = new Lazy<>(() -> collect(Card::flavorText));
-        printedText = new Lazy<>(() -> collect(Card::printedText));
         artist = new Lazy<>(() -> collect(Card::artist));
         number = new Lazy<>(() -> collect(Card::number));
         power = new Lazy<>(() -> collect(Card::power));
@@ -262,10 +252,35 @@ public abstract class MultiCard extends Card
         return commandFormats.get();
     }
 
+    /**
+     * Get the cards that represent the faces of this MultiCard.
+     *
+     * @return a list containing the single-faced card for each face of this MultiCard,
+     * in order.
+     */
+    public List<Card> faceCards()
+    {
+        return Collections.unmodifiableList(faces);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A MultiCard's details are stored if any of its faces' are.
+     */
+    @Override
+    public boolean detailsStored()
+    {
+        return faces.stream().anyMatch(Card::detailsStored);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This isn't cached, since the faces' flavor text might not be kept in memory.
+     */
     @Override
     public List<String> flavorText()
     {
-        return flavorText.get();
+        return collect(Card::flavorText);
     }
 
     @Override
@@ -334,10 +349,14 @@ public abstract class MultiCard extends Card
         return power.get();
     }
 
+    /**
+     * {@inheritDoc}
+     * This isn't cached, since the faces' printed text might not be kept in memory.
+     */
     @Override
     public List<String> printedText()
     {
-        return printedText.get();
+        return collect(Card::printedText);
     }
 
     @Override
@@ -15,6 +15,7 @@ import editor.database.attributes.Loyalty;
 import editor.database.attributes.ManaCost;
 import editor.database.attributes.ManaType;
 import editor.database.attributes.Rarity;
+import editor.util.Interner;
 import editor.util.UnicodeSymbols;
 
 /**
@@ -23,7 +24,7 @@ import editor.util.UnicodeSymbols;
  *
  * @author Alec Roelke
  */
-public class SingleCard extends Card
+public class SingleCard extends AbstractCard implements CardDetails.Holder
 {
     /**
      * Set containing all of the types of this SingleCard.
@@ -48,9 +49,12 @@ public class SingleCard extends Card
      */
     public final List<String> commandFormats;
     /**
-     * This SingleCard's flavor text.
+     * This SingleCard's flavor text, printed text, and rulings if they're kept in memory, or
+     * their location if they aren't.  Moving them out of memory replaces this in a single
+     * write, so other threads reading the details while that happens either see all of them
+     * or where they went.
      */
-    public final String flavor;
+    private volatile DetailsSource details;
     /**
      * This SingleCard's image name.
      */
@@ -93,10 +97,6 @@ public class SingleCard extends Card
      * @see Card#power()
      */
     public final CombatStat power;
-    /**
-     * The text actually printed on the card.
-     */
-    public final String printed;
     /**
      * The type line actually printed on the card.
      */
@@ -105,10 +105,6 @@ public class SingleCard extends Card
      * This Card's rarity.
      */
     private final Rarity rarity;
-    /**
-     * Rulings for this Card.
-     */
-    private final Map<Date, List<String>> rulings;
     /**
      * This SingleCard's subtypes.
      */
@@ -201,8 +197,6 @@ public class SingleCard extends Card
         this.subtypes = Collections.unmodifiableSet(subtype);
         this.printedTypes = printedTypes;
         this.text = text;
-        this.flavor = flavor;
-        this.printed = printed;
         this.artist = artist;
         this.number = number;
         this.multiverseid = multiverseid;
@@ -210,9 +204,9 @@ public class SingleCard extends Card
         this.power = power;
         this.toughness = toughness;
         this.loyalty = loyalty;
-        this.imageName = name.toLowerCase();
+        this.imageName = Interner.STRINGS.intern(name.toLowerCase());
         this.rarity = rarity;
-        this.rulings = Collections.unmodifiableMap(rulings);
+        this.details = new CardDetails(flavor, printed, rulings);
         this.legality = Collections.unmodifiableMap(legality);
         this.commandFormats = Collections.unmodifiableList(command);
 
@@ -225,7 +219,7 @@ public class SingleCard extends Card
         str.append(String.join(" ", types));
         if (subtypes.size() > 0)
             str.append(" " + UnicodeSymbols.EM_DASH + " ").append(String.join(" ", subtypes));
-        typeLine = str.toString();
+        typeLine = Interner.STRINGS.intern(str.toString());
 
         var faceTypes = new HashSet<String>();
         faceTypes.addAll(supertypes);
@@ -252,6 +246,21 @@ public class SingleCard extends Card
         return Collections.singletonList(mana.cmc());
     }
 
+    /**
+     * {@inheritDoc}
+     * This returns the same thing as {@link #cmc()}, but without boxing it.
+     *
+     * @throw IndexOutOfBoundsException if face is not equal to 0, since SingleCards only have
+     * one face
+     */
+    @Override
+    public double cmc(int face) throws IndexOutOfBoundsException
+    {
+        if (face != 0)
+            throw new IndexOutOfBoundsException("Single-faced cards only have one face");
+        return mana.cmc();
+    }
+
     @Override
     public List<ManaType> colorIdentity()
     {
@@ -285,10 +294,35 @@ public class SingleCard extends Card
         return commandFormats;
     }
 
+    @Override
+    public CardDetails details()
+    {
+        return details.read();
+    }
+
+    @Override
+    public boolean detailsStored()
+    {
+        return details instanceof CardDetails.Location;
+    }
+
+    @Override
+    public CardDetails.Store detailsStore()
+    {
+        var source = details;
+        return source instanceof CardDetails.Location ? ((CardDetails.Location)source).store : null;
+    }
+
+    @Override
+    public void storeDetails(CardDetails.Store s, int p)
+    {
+        details = new CardDetails.Location(s, p);
+    }
+
     @Override
     public List<String> flavorText()
     {
-        return Collections.singletonList(flavor);
+        return Collections.singletonList(details.read().flavor);
     }
 
     @Override
@@ -360,7 +394,7 @@ public class SingleCard extends Card
     @Override
     public List<String> printedText()
     {
-        return Collections.singletonList(printed);
+        return Collections.singletonList(details.read().printed);
     }
 
     @Override
@@ -378,7 +412,7 @@ public class SingleCard extends Card
     @Override
     public Map<Date, List<String>> rulings()
     {
-        return rulings;
+        return details.read().rulings;
     }
 
     @Override
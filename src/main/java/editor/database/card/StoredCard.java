@@ -0,0 +1,371 @@
+package editor.database.card;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import editor.database.attributes.CombatStat;
+import editor.database.attributes.Expansion;
+import editor.database.attributes.Legality;
+import editor.database.attributes.Loyalty;
+import editor.database.attributes.ManaCost;
+import editor.database.attributes.ManaType;
+import editor.database.attributes.Rarity;
+
+/**
+ * This class represents a single-faced card whose attributes are kept in a
+ * {@link CardStore}.  It behaves the same way as the {@link SingleCard} it was created
+ * from, but it only holds its store and its position in it.  Values derived from its
+ * attributes are kept in the store as well.
+ *
+ * @author Alec Roelke
+ */
+class StoredCard extends Card implements CardDetails.Holder
+{
+    /**
+     * Store containing this StoredCard's attributes.
+     */
+    private final CardStore store;
+    /**
+     * Position of this StoredCard's attributes in {@link #store}.
+     */
+    private final int index;
+
+    /**
+     * Create a new StoredCard.
+     *
+     * @param s store containing the new StoredCard's attributes
+     * @param i position of the new StoredCard's attributes in the store
+     */
+    StoredCard(CardStore s, int i)
+    {
+        store = s;
+        index = i;
+    }
+
+    @Override
+    public List<Set<String>> allTypes()
+    {
+        return Collections.singletonList(store.typeTable.get(store.allTypes[index]));
+    }
+
+    @Override
+    public List<String> artist()
+    {
+        return Collections.singletonList(store.artist[index]);
+    }
+
+    @Override
+    public List<Double> cmc()
+    {
+        return Collections.singletonList(store.cmc[index]);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This returns the same thing as {@link #cmc()}, but without boxing it.
+     *
+     * @throw IndexOutOfBoundsException if face is not equal to 0, since StoredCards only have
+     * one face
+     */
+    @Override
+    public double cmc(int face) throws IndexOutOfBoundsException
+    {
+        if (face != 0)
+            throw new IndexOutOfBoundsException("Single-faced cards only have one face");
+        return store.cmc[index];
+    }
+
+    @Override
+    public List<ManaType> colorIdentity()
+    {
+        return store.colorTable.get(store.colorIdentity[index]);
+    }
+
+    @Override
+    public List<ManaType> colors()
+    {
+        return store.colorTable.get(store.colors[index]);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This returns the same thing as {@link #colors()}.
+     *
+     * @throw IndexOutOfBoundsException if face is not equal to 0, since StoredCards only have
+     * one face
+     */
+    @Override
+    public List<ManaType> colors(int face) throws IndexOutOfBoundsException
+    {
+        if (face != 0)
+            throw new IndexOutOfBoundsException("Single-faced cards only have one face");
+        return colors();
+    }
+
+    @Override
+    public List<String> commandFormats()
+    {
+        return store.commandTable.get(store.commandFormats[index]);
+    }
+
+    @Override
+    public CardDetails details()
+    {
+        return store.details(index);
+    }
+
+    @Override
+    public boolean detailsStored()
+    {
+        return store.detailsStored(index);
+    }
+
+    @Override
+    public CardDetails.Store detailsStore()
+    {
+        return store.detailsStore(index);
+    }
+
+    @Override
+    public void storeDetails(CardDetails.Store s, int p)
+    {
+        store.storeDetails(index, s, p);
+    }
+
+    /**
+     * {@inheritDoc}
+     * StoredCards are compared by Scryfall ID without creating lists of them when both
+     * are StoredCards.
+     */
+    @Override
+    public boolean equals(Object other)
+    {
+        if (other instanceof StoredCard)
+        {
+            StoredCard o = (StoredCard)other;
+            return store.scryfallid[index].equals(o.store.scryfallid[o.index]);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public Expansion expansion()
+    {
+        return store.expansionTable.get(store.expansion[index]);
+    }
+
+    @Override
+    public int faces()
+    {
+        return 1;
+    }
+
+    @Override
+    public List<String> flavorText()
+    {
+        return Collections.singletonList(details().flavor);
+    }
+
+    @Override
+    public List<String> imageNames()
+    {
+        return Collections.singletonList(store.imageName[index]);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This is the same as {@link Card#hashCode()}, but computed without creating lists of
+     * the name and Scryfall ID.
+     */
+    @Override
+    public int hashCode()
+    {
+        // Objects.hash of two single-element lists
+        return 31*(31 + (31 + Objects.hashCode(store.name[index]))) + (31 + Objects.hashCode(store.scryfallid[index]));
+    }
+
+    @Override
+    public boolean ignoreCountRestriction()
+    {
+        return store.ignoreCountRestriction.get(index);
+    }
+
+    @Override
+    public boolean isLand()
+    {
+        return store.land.get(index);
+    }
+
+    @Override
+    public CardLayout layout()
+    {
+        return store.layout(index);
+    }
+
+    @Override
+    public List<String> legalIn()
+    {
+        return store.legalInTable.get(store.legality[index]);
+    }
+
+    @Override
+    public Map<String, Legality> legality()
+    {
+        return store.legalityTable.get(store.legality[index]);
+    }
+
+    @Override
+    public List<String> legendName()
+    {
+        var value = store.legendName[index];
+        if (value == null)
+            store.legendName[index] = value = super.legendName();
+        return value;
+    }
+
+    @Override
+    public List<Loyalty> loyalty()
+    {
+        return Collections.singletonList(store.loyalty[index]);
+    }
+
+    @Override
+    public List<ManaCost> manaCost()
+    {
+        return Collections.singletonList(store.mana[index]);
+    }
+
+    @Override
+    public List<String> name()
+    {
+        return Collections.singletonList(store.name[index]);
+    }
+
+    @Override
+    public List<String> normalizedFlavor()
+    {
+        if (store.detailsStored(index))
+            return super.normalizedFlavor();
+        var value = store.normalizedFlavor[index];
+        if (value == null)
+            store.normalizedFlavor[index] = value = super.normalizedFlavor();
+        return value;
+    }
+
+    @Override
+    public List<String> normalizedName()
+    {
+        var value = store.normalizedName[index];
+        if (value == null)
+            store.normalizedName[index] = value = super.normalizedName();
+        return value;
+    }
+
+    @Override
+    public List<String> normalizedOracle()
+    {
+        var value = store.normalizedOracle[index];
+        if (value == null)
+            store.normalizedOracle[index] = value = super.normalizedOracle();
+        return value;
+    }
+
+    @Override
+    public List<String> normalizedPrinted()
+    {
+        if (store.detailsStored(index))
+            return super.normalizedPrinted();
+        var value = store.normalizedPrinted[index];
+        if (value == null)
+            store.normalizedPrinted[index] = value = super.normalizedPrinted();
+        return value;
+    }
+
+    @Override
+    public List<String> number()
+    {
+        return Collections.singletonList(store.number[index]);
+    }
+
+    @Override
+    public List<Integer> multiverseid()
+    {
+        return Collections.singletonList(store.multiverseid[index]);
+    }
+
+    @Override
+    public List<String> scryfallid()
+    {
+        return Collections.singletonList(store.scryfallid[index]);
+    }
+
+    @Override
+    public List<String> oracleText()
+    {
+        return Collections.singletonList(store.text[index]);
+    }
+
+    @Override
+    public List<CombatStat> power()
+    {
+        return Collections.singletonList(store.power[index]);
+    }
+
+    @Override
+    public List<String> printedText()
+    {
+        return Collections.singletonList(details().printed);
+    }
+
+    @Override
+    public List<String> printedTypes()
+    {
+        return Collections.singletonList(store.printedTypes[index]);
+    }
+
+    @Override
+    public Rarity rarity()
+    {
+        return store.rarity(index);
+    }
+
+    @Override
+    public Map<Date, List<String>> rulings()
+    {
+        return details().rulings;
+    }
+
+    @Override
+    public Set<String> subtypes()
+    {
+        return store.typeTable.get(store.subtypes[index]);
+    }
+
+    @Override
+    public Set<String> supertypes()
+    {
+        return store.typeTable.get(store.supertypes[index]);
+    }
+
+    @Override
+    public List<CombatStat> toughness()
+    {
+        return Collections.singletonList(store.toughness[index]);
+    }
+
+    @Override
+    public List<String> typeLine()
+    {
+        return Collections.singletonList(store.typeLine[index]);
+    }
+
+    @Override
+    public Set<String> types()
+    {
+        return store.typeTable.get(store.types[index]);
+    }
+}
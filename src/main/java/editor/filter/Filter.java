@@ -1,5 +1,10 @@
 package editor.filter;
 
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 
 import com.google.gson.JsonElement;
@@ -7,6 +12,7 @@ import com.google.gson.JsonObject;
 
 import editor.database.attributes.CardAttribute;
 import editor.database.card.Card;
+import editor.util.IndexedBitSet;
 
 
 /**
@@ -22,6 +28,86 @@ import editor.database.card.Card;
  */
 public abstract class Filter implements Predicate<Card>
 {
+    /**
+     * This class is a task for testing a range of cards in a list with the enclosing
+     * Filter.  If the range is too long, it's split in half and the halves are tested
+     * in parallel.  Testing stops early if it's cancelled.
+     *
+     * @author Alec Roelke
+     */
+    @SuppressWarnings("serial")
+    private class TestTask extends RecursiveAction
+    {
+        /**
+         * List of cards to test.
+         */
+        private final List<? extends Card> cards;
+        /**
+         * Compiled version of the enclosing Filter to test cards with.
+         */
+        private final Predicate<Card> predicate;
+        /**
+         * Set of positions of the cards that pass, which is shared by all tasks.
+         */
+        private final IndexedBitSet passed;
+        /**
+         * Position of the first card to test.
+         */
+        private final int from;
+        /**
+         * Position after the last card to test.
+         */
+        private final int to;
+        /**
+         * Largest number of cards to test without splitting the range.
+         */
+        private final int threshold;
+        /**
+         * Whether or not testing has been cancelled.
+         */
+        private final BooleanSupplier cancelled;
+
+        /**
+         * Create a new TestTask.
+         *
+         * @param c list of cards to test
+         * @param q compiled version of the enclosing Filter
+         * @param p set of positions to record passing cards in
+         * @param f position of the first card to test, which should be a multiple of 64
+         * @param t position after the last card to test
+         * @param n largest number of cards to test without splitting the range
+         * @param x whether or not testing has been cancelled
+         */
+        public TestTask(List<? extends Card> c, Predicate<Card> q, IndexedBitSet p, int f, int t, int n, BooleanSupplier x)
+        {
+            cards = c;
+            predicate = q;
+            passed = p;
+            from = f;
+            to = t;
+            threshold = n;
+            cancelled = x;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= threshold)
+            {
+                // Check for cancellation once per word of the result
+                for (int i = from; i < to && (i % Long.SIZE != 0 || !cancelled.getAsBoolean()); i++)
+                    if (predicate.test(cards.get(i)))
+                        passed.set(i);
+            }
+            else if (!cancelled.getAsBoolean())
+            {
+                // Split on a multiple of 64 so no two tasks set bits in the same word
+                int mid = from + ((to - from)/2 + Long.SIZE - 1)/Long.SIZE*Long.SIZE;
+                invokeAll(new TestTask(cards, predicate, passed, from, mid, threshold, cancelled), new TestTask(cards, predicate, passed, mid, to, threshold, cancelled));
+            }
+        }
+    }
+
     /**
      * Parent of this Filter in the tree (null if this is the root Filter).
      */
@@ -52,6 +138,127 @@ public abstract class Filter implements Predicate<Card>
     @Override
     public abstract boolean equals(Object other);
 
+    /**
+     * Compile this Filter into a predicate that tests cards the same way it does, but
+     * does as much of its work as possible ahead of time (like parsing text and choosing
+     * comparisons) rather than again for every card.  The predicate only depends on the
+     * state of this Filter at the time it was compiled, so later changes to this Filter
+     * don't affect it, and it can be used from several threads at once.
+     * <p>
+     * By default, the predicate tests cards with a copy of this Filter.  Filters that do
+     * work for each card that doesn't depend on the card should override this.
+     *
+     * @return A predicate that passes the same cards as this Filter.
+     */
+    public Predicate<Card> compile()
+    {
+        return copy()::test;
+    }
+
+    /**
+     * Test some of the cards in a list with this Filter.  Cards that aren't candidates
+     * aren't tested at all, and the ones that are are tested with the {@link #compile()
+     * compiled} version of this Filter.
+     *
+     * @param cards list of cards to test
+     * @param candidates positions in the list of the cards to test
+     * @return The positions of the candidates that pass this Filter.
+     */
+    public final IndexedBitSet test(List<? extends Card> cards, IndexedBitSet candidates)
+    {
+        return test(cards, candidates, () -> false);
+    }
+
+    /**
+     * Test some of the cards in a list with this Filter in the same way as
+     * {@link #test(List, IndexedBitSet)}, but stop early if testing is cancelled, which
+     * is checked once per 64 cards in the list like when testing them in parallel.  If
+     * testing is cancelled, the result only contains some of the cards that pass.
+     *
+     * @param cards list of cards to test
+     * @param candidates positions in the list of the cards to test
+     * @param cancelled whether or not testing has been cancelled
+     * @return The positions of the candidates that pass this Filter.
+     */
+    public IndexedBitSet test(List<? extends Card> cards, IndexedBitSet candidates, BooleanSupplier cancelled)
+    {
+        var passed = new IndexedBitSet(cards.size());
+        Predicate<Card> predicate = compile();
+        int word = -1;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1))
+        {
+            // Check for cancellation once per word of the result
+            if (i/Long.SIZE != word)
+            {
+                if (cancelled.getAsBoolean())
+                    break;
+                word = i/Long.SIZE;
+            }
+            if (predicate.test(cards.get(i)))
+                passed.set(i);
+        }
+        return passed;
+    }
+
+    /**
+     * Test all of the cards in a list with this Filter.
+     *
+     * @param cards list of cards to test
+     * @return The positions in the list of the cards that pass this Filter.
+     */
+    public final IndexedBitSet test(List<? extends Card> cards)
+    {
+        var all = new IndexedBitSet(cards.size());
+        all.setAll();
+        return test(cards, all);
+    }
+
+    /**
+     * Test all of the cards in a list with this Filter.  If there are more cards than
+     * the threshold, the list is split into ranges of no more than that many cards, and
+     * the ranges are tested in parallel.
+     *
+     * @param cards list of cards to test
+     * @param threshold largest number of cards to test on one thread
+     * @return The positions in the list of the cards that pass this Filter.
+     */
+    public final IndexedBitSet test(List<? extends Card> cards, int threshold)
+    {
+        return test(cards, threshold, () -> false);
+    }
+
+    /**
+     * Test all of the cards in a list with this Filter in the same way as
+     * {@link #test(List, int)}, but stop early if testing is cancelled.  Whether or not the
+     * cards are tested in parallel, cancellation is checked every 64 cards, so a Filter
+     * that is slow to test can be abandoned without waiting for it to finish.
+     *
+     * @param cards list of cards to test
+     * @param threshold largest number of cards to test on one thread
+     * @param cancelled whether or not testing has been cancelled; this is checked from
+     * the threads doing the testing, so it should be thread-safe
+     * @return The positions in the list of the cards that pass this Filter.
+     * @throws CancellationException if testing was cancelled before it finished
+     */
+    public final IndexedBitSet test(List<? extends Card> cards, int threshold, BooleanSupplier cancelled) throws CancellationException
+    {
+        IndexedBitSet passed;
+        if (cards.size() <= threshold)
+        {
+            var all = new IndexedBitSet(cards.size());
+            all.setAll();
+            passed = test(cards, all, cancelled);
+        }
+        else
+        {
+            passed = new IndexedBitSet(cards.size());
+            ForkJoinPool.commonPool().invoke(new TestTask(cards, compile(), passed, 0, cards.size(), Math.max(threshold, Long.SIZE), cancelled));
+        }
+        if (cancelled.getAsBoolean())
+            throw new CancellationException();
+        return passed;
+    }
+
     @Override
     public abstract int hashCode();
 
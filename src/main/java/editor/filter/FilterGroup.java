@@ -7,8 +7,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.BiPredicate;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 import java.util.stream.Collector;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.google.gson.JsonArray;
@@ -17,6 +19,7 @@ import com.google.gson.JsonObject;
 
 import editor.database.attributes.CardAttribute;
 import editor.database.card.Card;
+import editor.util.IndexedBitSet;
 
 /**
  * This class represents a group of filters that are ANDed or ORed together.
@@ -72,6 +75,40 @@ public class FilterGroup extends Filter implements Iterable<Filter>
             return function.test(filters.stream(), (f) -> f.test(c));
         }
 
+        /**
+         * Combine predicates the same way this Mode combines filters.  A card is tested
+         * with the predicates in order, stopping as soon as the result is known.
+         *
+         * @param predicates predicates to combine
+         * @return A predicate that tests cards with all of the given ones according to
+         * this Mode.
+         */
+        public Predicate<Card> combine(List<? extends Predicate<Card>> predicates)
+        {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Predicate<Card>[] p = predicates.toArray(new Predicate[predicates.size()]);
+            return switch (this) {
+                case AND -> (c) -> {
+                    for (Predicate<Card> predicate : p)
+                        if (!predicate.test(c))
+                            return false;
+                    return true;
+                };
+                case OR -> (c) -> {
+                    for (Predicate<Card> predicate : p)
+                        if (predicate.test(c))
+                            return true;
+                    return false;
+                };
+                case NOR -> (c) -> {
+                    for (Predicate<Card> predicate : p)
+                        if (predicate.test(c))
+                            return false;
+                    return true;
+                };
+            };
+        }
+
         @Override
         public String toString()
         {
@@ -140,6 +177,17 @@ public class FilterGroup extends Filter implements Iterable<Filter>
         return filter;
     }
 
+    /**
+     * {@inheritDoc}
+     * The children are compiled too, and the predicate tests a card with them in order,
+     * stopping as soon as the result is known.
+     */
+    @Override
+    public Predicate<Card> compile()
+    {
+        return mode.combine(children.stream().map(Filter::compile).collect(Collectors.toList()));
+    }
+
     @Override
     public boolean equals(Object other)
     {
@@ -178,6 +226,45 @@ public class FilterGroup extends Filter implements Iterable<Filter>
         return mode.test(children, c);
     }
 
+    /**
+     * {@inheritDoc}
+     * Each child is only given the candidates whose result isn't known yet, and the
+     * children's results are combined a word at a time.
+     */
+    @Override
+    public IndexedBitSet test(List<? extends Card> cards, IndexedBitSet candidates, BooleanSupplier cancelled)
+    {
+        if (mode == Mode.AND)
+        {
+            var passed = new IndexedBitSet(candidates);
+            for (Filter child : children)
+            {
+                if (passed.cardinality() == 0 || cancelled.getAsBoolean())
+                    break;
+                passed = child.test(cards, passed, cancelled);
+            }
+            return passed;
+        }
+        else
+        {
+            // Candidates that pass any child are decided, so later children don't need to test them
+            var any = new IndexedBitSet(cards.size());
+            var remaining = new IndexedBitSet(candidates);
+            for (Filter child : children)
+            {
+                if (remaining.cardinality() == 0 || cancelled.getAsBoolean())
+                    break;
+                var passed = child.test(cards, remaining, cancelled);
+                any.or(passed);
+                remaining.andNot(passed);
+            }
+            if (mode == Mode.OR)
+                return any;
+            else
+                return remaining;
+        }
+    }
+
     @Override
     protected void serializeFields(JsonObject fields)
     {
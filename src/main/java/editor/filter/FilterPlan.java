@@ -0,0 +1,229 @@
+package editor.filter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import editor.database.card.Card;
+import editor.util.IndexedBitSet;
+
+/**
+ * This class represents a plan for testing cards with a {@link Filter}, created by a
+ * {@link FilterPlanner}.  A plan has the same shape as its filter's tree:  each node has
+ * an estimate of how long it takes to test a card and what fraction of cards it passes,
+ * and the children of each {@link FilterGroup} are in the order they will be tested in.
+ * <p>
+ * To help with finding out why a search is slow, a plan can also {@link #analyze(List)
+ * test cards while timing each node}.  The time recorded for a group includes the time
+ * spent testing its children.
+ *
+ * @author Alec Roelke
+ */
+public class FilterPlan
+{
+    /**
+     * Filter tested at this node.  If it's a group, its children are in the planned order.
+     */
+    private final Filter filter;
+    /**
+     * Plans for the children of the group at this node, in the order they are tested, or
+     * an empty list if this node isn't a group.
+     */
+    private final List<FilterPlan> children;
+    /**
+     * Estimated number of nanoseconds it takes to test a card.
+     */
+    private final double cost;
+    /**
+     * Estimated fraction of cards that pass.
+     */
+    private final double selectivity;
+    /**
+     * Number of cards tested at this node while analyzing.
+     */
+    private final LongAdder tested;
+    /**
+     * Number of cards that passed this node while analyzing.
+     */
+    private final LongAdder passed;
+    /**
+     * Number of nanoseconds spent testing cards at this node while analyzing.
+     */
+    private final LongAdder time;
+
+    /**
+     * Create a new FilterPlan.
+     *
+     * @param f filter to test at the new node
+     * @param c plans for the children of the filter, in the order they are tested
+     * @param t estimated number of nanoseconds it takes to test a card
+     * @param s estimated fraction of cards that pass
+     */
+    FilterPlan(Filter f, List<FilterPlan> c, double t, double s)
+    {
+        filter = f;
+        children = Collections.unmodifiableList(c);
+        cost = t;
+        selectivity = s;
+        tested = new LongAdder();
+        passed = new LongAdder();
+        time = new LongAdder();
+    }
+
+    /**
+     * @return The filter tested by this FilterPlan.  If it's a group, its children are in
+     * the order this FilterPlan tests them in.  It passes the same cards as the filter the
+     * plan was created for.
+     */
+    public Filter filter()
+    {
+        return filter;
+    }
+
+    /**
+     * @return The plans for the children of this FilterPlan's group in the order they are
+     * tested, or an empty list if it isn't a group.
+     */
+    public List<FilterPlan> children()
+    {
+        return children;
+    }
+
+    /**
+     * @return The estimated number of nanoseconds it takes to test a card with this
+     * FilterPlan.
+     */
+    public double cost()
+    {
+        return cost;
+    }
+
+    /**
+     * @return The estimated fraction of cards that pass this FilterPlan.
+     */
+    public double selectivity()
+    {
+        return selectivity;
+    }
+
+    /**
+     * @return The number of cards tested at this node during the last
+     * {@link #analyze(List) analysis}.
+     */
+    public long tested()
+    {
+        return tested.sum();
+    }
+
+    /**
+     * @return The number of cards that passed this node during the last
+     * {@link #analyze(List) analysis}.
+     */
+    public long passed()
+    {
+        return passed.sum();
+    }
+
+    /**
+     * @return The number of nanoseconds spent testing cards at this node during the last
+     * {@link #analyze(List) analysis}.
+     */
+    public long time()
+    {
+        return time.sum();
+    }
+
+    /**
+     * Create a predicate that tests cards according to this FilterPlan and records how
+     * many cards each node tests and passes and how long it takes.
+     *
+     * @return A predicate that passes the same cards as this FilterPlan's filter.
+     */
+    private Predicate<Card> compileTimed()
+    {
+        Predicate<Card> predicate;
+        if (filter instanceof FilterGroup)
+            predicate = ((FilterGroup)filter).mode.combine(children.stream().map(FilterPlan::compileTimed).collect(Collectors.toList()));
+        else
+            predicate = filter.compile();
+        return (c) -> {
+            long start = System.nanoTime();
+            boolean result = predicate.test(c);
+            time.add(System.nanoTime() - start);
+            tested.increment();
+            if (result)
+                passed.increment();
+            return result;
+        };
+    }
+
+    /**
+     * Test cards according to this FilterPlan, recording how many cards each node tests
+     * and passes and how long it takes.  This is slower than testing them with
+     * {@link #filter()}, so it should only be used for finding out why a filter is slow.
+     * Statistics from earlier analyses are discarded.
+     *
+     * @param cards list of cards to test
+     * @return The positions in the list of the cards that pass.
+     */
+    public IndexedBitSet analyze(List<? extends Card> cards)
+    {
+        reset();
+        var result = new IndexedBitSet(cards.size());
+        Predicate<Card> predicate = compileTimed();
+        for (int i = 0; i < cards.size(); i++)
+            if (predicate.test(cards.get(i)))
+                result.set(i);
+        return result;
+    }
+
+    /**
+     * Discard the statistics recorded by {@link #analyze(List)} for this node and all of
+     * its children.
+     */
+    private void reset()
+    {
+        tested.reset();
+        passed.reset();
+        time.reset();
+        for (FilterPlan child : children)
+            child.reset();
+    }
+
+    /**
+     * Describe this node and the ones below it, one per line.
+     *
+     * @param str builder to add the description to
+     * @param depth number of levels above this node, for indentation
+     */
+    private void describe(StringBuilder str, int depth)
+    {
+        str.append("  ".repeat(depth));
+        if (filter instanceof FilterGroup)
+            str.append(((FilterGroup)filter).mode);
+        else
+            str.append(filter.toJsonObject());
+        str.append(String.format(" (estimated %.1f ns/card, %.1f%% pass", cost, selectivity*100));
+        if (tested() > 0)
+            str.append(String.format("; tested %d, passed %d, %.3f ms", tested(), passed(), time()/1e6));
+        str.append(')').append(System.lineSeparator());
+        for (FilterPlan child : children)
+            child.describe(str, depth + 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The String representation of a FilterPlan shows the nodes of its tree in the order
+     * they are tested, indented by depth, with their estimates and, if it has been
+     * analyzed, what actually happened.
+     */
+    @Override
+    public String toString()
+    {
+        var str = new StringBuilder();
+        describe(str, 0);
+        return str.toString();
+    }
+}
@@ -0,0 +1,186 @@
+package editor.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import editor.database.card.Card;
+
+/**
+ * This class plans how to test the cards in a list with {@link Filter}s so that the
+ * result of testing each card is known as early as possible.  The order of a group's
+ * children doesn't change which cards it passes, so the children of each
+ * {@link FilterGroup} are reordered:  children of AND groups that are cheap and reject
+ * many cards are tested first, and so are children of OR and NOR groups that are cheap
+ * and pass many cards.
+ * <p>
+ * How long a filter takes to test a card and how many cards it passes are estimated by
+ * testing it with an evenly-spaced sample of the list.  Estimates are cached, so filters
+ * that are used again (for example, parts of a filter that is being edited) don't have to
+ * be sampled again.  Estimates for groups are computed from the estimates for their
+ * children, assuming the children pass cards independently of each other.
+ *
+ * @author Alec Roelke
+ */
+public class FilterPlanner
+{
+    /**
+     * Largest number of cards to test a filter with to estimate its cost and selectivity.
+     */
+    public static final int SAMPLE_SIZE = 512;
+    /**
+     * Number of times to test a filter with its sample to estimate its cost.
+     */
+    private static final int SAMPLE_PASSES = 2;
+    /**
+     * Largest number of filters to remember estimates for.
+     */
+    private static final int CACHE_SIZE = 256;
+
+    /**
+     * This class represents the estimated cost and selectivity of a leaf filter.
+     *
+     * @author Alec Roelke
+     */
+    private static class Estimate
+    {
+        /**
+         * Estimated number of nanoseconds it takes to test a card.
+         */
+        public final double cost;
+        /**
+         * Estimated fraction of cards that pass.
+         */
+        public final double selectivity;
+
+        /**
+         * Create a new Estimate.
+         *
+         * @param c estimated number of nanoseconds it takes to test a card
+         * @param s estimated fraction of cards that pass
+         */
+        public Estimate(double c, double s)
+        {
+            cost = c;
+            selectivity = s;
+        }
+    }
+
+    /**
+     * Cards to plan for.
+     */
+    private final List<? extends Card> cards;
+    /**
+     * Estimates for leaf filters that have already been sampled, with the least-recently
+     * used ones discarded first.
+     */
+    private final Map<Filter, Estimate> estimates;
+
+    /**
+     * Create a new FilterPlanner.
+     *
+     * @param c list of cards to plan for; it can be reordered, but it shouldn't otherwise
+     * change while the FilterPlanner is in use
+     */
+    @SuppressWarnings("serial")
+    public FilterPlanner(List<? extends Card> c)
+    {
+        cards = c;
+        estimates = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Filter, Estimate> eldest)
+            {
+                return size() > CACHE_SIZE;
+            }
+        });
+    }
+
+    /**
+     * Estimate the cost and selectivity of a leaf filter by testing it with a sample of
+     * the cards.
+     *
+     * @param filter filter to estimate
+     * @return The estimated cost and selectivity of the filter.
+     */
+    private Estimate sample(Filter filter)
+    {
+        int n = Math.min(cards.size(), SAMPLE_SIZE);
+        if (n == 0)
+            return new Estimate(0, 0.5);
+        Predicate<Card> predicate = filter.compile();
+        int passed = 0;
+        long time = Long.MAX_VALUE;
+        // The first pass includes one-time costs like loading classes, so use the faster pass
+        for (int pass = 0; pass < SAMPLE_PASSES; pass++)
+        {
+            passed = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                if (predicate.test(cards.get((int)((long)i*cards.size()/n))))
+                    passed++;
+            time = Math.min(time, System.nanoTime() - start);
+        }
+        // Keep selectivity away from 0 and 1, since a sample can miss rare outcomes
+        return new Estimate((double)time/n, (passed + 1.0)/(n + 2.0));
+    }
+
+    /**
+     * Find how useful testing a child of a group early is.  Children that cost less for
+     * each card whose result they decide are more useful.
+     *
+     * @param mode mode of the group
+     * @param child plan for the child
+     * @return The estimated cost of the child per card whose result it decides, where
+     * lower values should be tested first.
+     */
+    private static double rank(FilterGroup.Mode mode, FilterPlan child)
+    {
+        // A card rejected by a child decides an AND group; a card passed by a child decides the others
+        return child.cost()/(mode == FilterGroup.Mode.AND ? 1 - child.selectivity() : child.selectivity());
+    }
+
+    /**
+     * Plan how to test cards with a filter.
+     *
+     * @param filter filter to plan for
+     * @return A plan whose {@link FilterPlan#filter() filter} passes the same cards as
+     * the given one, but with the children of its groups reordered so results are found
+     * as early as possible.  The given filter isn't modified.
+     */
+    public FilterPlan plan(Filter filter)
+    {
+        if (filter instanceof FilterGroup)
+        {
+            FilterGroup group = (FilterGroup)filter;
+            var children = new ArrayList<FilterPlan>();
+            for (Filter child : group)
+                children.add(plan(child));
+            children.sort(Comparator.comparingDouble((p) -> rank(group.mode, p)));
+
+            // Each child is only tested with the cards whose results the children before it didn't decide
+            var planned = new FilterGroup();
+            planned.mode = group.mode;
+            double cost = 0;
+            double remaining = 1;
+            for (FilterPlan child : children)
+            {
+                planned.addChild(child.filter());
+                cost += remaining*child.cost();
+                remaining *= group.mode == FilterGroup.Mode.AND ? child.selectivity() : 1 - child.selectivity();
+            }
+            double selectivity = group.mode == FilterGroup.Mode.OR ? 1 - remaining : remaining;
+            return new FilterPlan(planned, children, cost, selectivity);
+        }
+        else
+        {
+            Filter leaf = filter.copy();
+            Estimate estimate = estimates.computeIfAbsent(leaf, this::sample);
+            return new FilterPlan(leaf, new ArrayList<>(), estimate.cost, estimate.selectivity);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package editor.filter.leaf;
 
 import java.util.Objects;
+import java.util.function.Predicate;
 
 import com.google.gson.JsonObject;
 
@@ -68,6 +69,13 @@ public class BinaryFilter extends FilterLeaf<Void>
         return all;
     }
 
+    @Override
+    public Predicate<Card> compile()
+    {
+        boolean a = all;
+        return (c) -> a;
+    }
+
     @Override
     protected void serializeFields(JsonObject fields)
     {
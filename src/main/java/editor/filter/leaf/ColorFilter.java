@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -99,6 +100,23 @@ public class ColorFilter extends FilterLeaf<List<ManaType>>
                 && (!multicolored || function().apply(c).size() > 1);
     }
 
+    /**
+     * {@inheritDoc}
+     * A card's colors are only found once.
+     */
+    @Override
+    public Predicate<Card> compile()
+    {
+        Function<Card, List<ManaType>> values = function();
+        Containment c = contain;
+        Set<ManaType> s = new HashSet<>(colors);
+        boolean m = multicolored;
+        return (card) -> {
+            List<ManaType> v = values.apply(card);
+            return c.test(v, s) && (!m || v.size() > 1);
+        };
+    }
+
     @Override
     protected void serializeFields(JsonObject fields)
     {
@@ -1,6 +1,7 @@
 package editor.filter.leaf;
 
 import java.util.Objects;
+import java.util.function.Predicate;
 
 import com.google.gson.JsonObject;
 
@@ -81,6 +82,30 @@ public class ManaCostFilter extends FilterLeaf<ManaCost>
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * The way to compare mana costs is chosen once, rather than for every card.
+     */
+    @Override
+    public Predicate<Card> compile()
+    {
+        ManaCost x = cost;
+        Predicate<ManaCost> matcher = switch (contain) {
+            case CONTAINS_ANY_OF -> (m) -> Containment.CONTAINS_ANY_OF.test(m, x);
+            case CONTAINS_NONE_OF -> (m) -> Containment.CONTAINS_NONE_OF.test(m, x);
+            case CONTAINS_ALL_OF -> (m) -> m.isSuperset(x);
+            case CONTAINS_NOT_ALL_OF -> (m) -> !m.isSuperset(x);
+            case CONTAINS_EXACTLY -> (m) -> m.equals(x);
+            case CONTAINS_NOT_EXACTLY -> (m) -> !m.equals(x);
+        };
+        return (c) -> {
+            for (ManaCost m : c.manaCost())
+                if (matcher.test(m))
+                    return true;
+            return false;
+        };
+    }
+
     @Override
     protected void serializeFields(JsonObject fields)
     {
@@ -3,6 +3,7 @@ package editor.filter.leaf;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import com.google.gson.JsonObject;
 
@@ -18,6 +19,22 @@ import editor.util.Comparison;
  */
 public class NumberFilter extends FilterLeaf<Collection<Double>>
 {
+    /**
+     * Function for getting the value of one face of a card without boxing it.
+     *
+     * @author Alec Roelke
+     */
+    @FunctionalInterface
+    public interface FaceValue
+    {
+        /**
+         * @param c card to get the value of
+         * @param face index of the face to get the value of
+         * @return The value of the face of the card.
+         */
+        double of(Card c, int face);
+    }
+
     /**
      * Operation to compare the characteristic with this NumberFilter's
      * operand.
@@ -27,6 +44,11 @@ public class NumberFilter extends FilterLeaf<Collection<Double>>
      * Operand to perform the operation on.
      */
     public double operand;
+    /**
+     * Function for getting the value of each face of a card without boxing it, or null to
+     * always use {@link #function()}.
+     */
+    private final FaceValue value;
 
     /**
      * Create a new NumberFilter.
@@ -35,10 +57,25 @@ public class NumberFilter extends FilterLeaf<Collection<Double>>
      * @param f function for the new NumberFilter
      */
     public NumberFilter(CardAttribute t, Function<Card, Collection<Double>> f)
+    {
+        this(t, f, null);
+    }
+
+    /**
+     * Create a new NumberFilter that can get the value of each face of a card without
+     * boxing it when it's compiled.
+     *
+     * @param t type of the new NumberFilter
+     * @param f function for the new NumberFilter
+     * @param v function for the value of one face of a card, which should be the same
+     * as the corresponding element of f's value
+     */
+    public NumberFilter(CardAttribute t, Function<Card, Collection<Double>> f, FaceValue v)
     {
         super(t, f);
         operation = Comparison.EQ;
         operand = 0.0;
+        value = v;
     }
 
     /**
@@ -60,6 +97,38 @@ public class NumberFilter extends FilterLeaf<Collection<Double>>
         return function().apply(c).stream().anyMatch((v) -> !v.isNaN() && operation.test(v, operand));
     }
 
+    /**
+     * {@inheritDoc}
+     * The numbers are compared without boxing them again, and if there's a function for
+     * the value of each face, they aren't boxed in the first place.
+     */
+    @Override
+    public Predicate<Card> compile()
+    {
+        Function<Card, Collection<Double>> values = function();
+        Comparison op = operation;
+        double x = operand;
+        if (value != null)
+        {
+            FaceValue face = value;
+            return (c) -> {
+                for (int i = 0; i < c.faces(); i++)
+                {
+                    double v = face.of(c, i);
+                    if (!Double.isNaN(v) && op.matches(Double.compare(v, x)))
+                        return true;
+                }
+                return false;
+            };
+        }
+        return (c) -> {
+            for (double v : values.apply(c))
+                if (!Double.isNaN(v) && op.matches(Double.compare(v, x)))
+                    return true;
+            return false;
+        };
+    }
+
     /**
      * @return A new NumberFilter that is a copy of this one.
      */
@@ -141,31 +141,33 @@ public class TextFilter extends FilterLeaf<Collection<String>>
     }
 
     /**
-     * {@inheritDoc}
-     * Cards are filtered by a text attribute that matches this TextFilter's text.
+     * Create a predicate that tests a single value of a card's text attribute with this
+     * TextFilter's text, containment, and whether or not it's a regular expression.
+     *
+     * @return A predicate that passes the strings that match this TextFilter.
      */
-    @Override
-    public boolean test(Card c)
+    private Predicate<String> matcher()
     {
         // If the filter is a regex, then just match it
         if (regex)
         {
             Pattern p = Pattern.compile(text, Pattern.DOTALL|Pattern.CASE_INSENSITIVE);
-            return function().apply(c).stream().anyMatch((s) -> p.matcher(s).find());
+            return (s) -> p.matcher(s).find();
         }
         else
         {
             // If the filter is a "simple" string, then the characteristic matches if it matches the
             // filter text in any order with the specified set containment
+            String t = text;
             Predicate<String> matcher;
             switch (contain)
             {
             case CONTAINS_ALL_OF:
-                matcher = createSimpleMatcher(text);
+                matcher = createSimpleMatcher(t);
                 break;
             case CONTAINS_ANY_OF:
             case CONTAINS_NONE_OF:
-                Matcher m = TextFilter.WORD_PATTERN.matcher(text);
+                Matcher m = TextFilter.WORD_PATTERN.matcher(t);
                 StringJoiner str = new StringJoiner("\\E(?:^|$|\\W))|((?:^|$|\\W)\\Q", "((?:^|$|\\W)\\Q", "\\E(?:^|$|\\W))");
                 while (m.find())
                 {
@@ -185,22 +187,50 @@ public class TextFilter extends FilterLeaf<Collection<String>>
                     matcher = (s) -> p.matcher(s).find();
                 break;
             case CONTAINS_NOT_ALL_OF:
-                matcher = createSimpleMatcher(text).negate();
+                matcher = createSimpleMatcher(t).negate();
                 break;
             case CONTAINS_NOT_EXACTLY:
-                matcher = (s) -> !s.equalsIgnoreCase(text);
+                matcher = (s) -> !s.equalsIgnoreCase(t);
                 break;
             case CONTAINS_EXACTLY:
-                matcher = (s) -> s.equalsIgnoreCase(text);
+                matcher = (s) -> s.equalsIgnoreCase(t);
                 break;
             default:
                 matcher = (s) -> false;
                 break;
             }
-            return function().apply(c).stream().anyMatch(matcher);
+            return matcher;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * Cards are filtered by a text attribute that matches this TextFilter's text.
+     */
+    @Override
+    public boolean test(Card c)
+    {
+        return function().apply(c).stream().anyMatch(matcher());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The text is parsed and its pattern is compiled once, rather than again for every
+     * card.
+     */
+    @Override
+    public Predicate<Card> compile()
+    {
+        Function<Card, Collection<String>> values = function();
+        Predicate<String> matcher = matcher();
+        return (c) -> {
+            for (String s : values.apply(c))
+                if (matcher.test(s))
+                    return true;
+            return false;
+        };
+    }
+
     @Override
     protected void serializeFields(JsonObject fields)
     {
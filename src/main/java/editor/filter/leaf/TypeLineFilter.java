@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 import com.google.gson.JsonObject;
 
@@ -77,6 +78,55 @@ public class TypeLineFilter extends FilterLeaf<List<Set<String>>>
         return !line.isEmpty() && contain.test(c.allTypes().stream().flatMap(Set::stream).map(String::toLowerCase).collect(Collectors.toSet()), Arrays.asList(line.toLowerCase().split("\\s")));
     }
 
+    /**
+     * {@inheritDoc}
+     * The filter's text is split into words once, rather than for every card, and each
+     * card's supertypes, types, and subtypes, which together are the same as all of the types
+     * of its faces, are compared with the distinct words directly instead of being
+     * collected into a set first.  The words each card contains are tracked in the bits of
+     * a long, so if there are more than 64 distinct words the card's types are still
+     * collected.
+     */
+    @Override
+    public Predicate<Card> compile()
+    {
+        if (line.isEmpty())
+            return (c) -> false;
+        Containment contains = contain;
+        List<String> words = Arrays.asList(line.toLowerCase().split("\\s"));
+        String[] distinct = words.stream().distinct().toArray(String[]::new);
+        if (distinct.length > Long.SIZE)
+            return (c) -> contains.test(c.allTypes().stream().flatMap(Set::stream).map(String::toLowerCase).collect(Collectors.toSet()), words);
+        boolean repeated = distinct.length < words.size();
+        long all = distinct.length == Long.SIZE ? -1L : (1L << distinct.length) - 1;
+        return (c) -> {
+            // Which words the card has, and whether it has any types that aren't words
+            long found = 0;
+            boolean other = false;
+            for (int i = 0; i < 3; i++)
+            {
+                for (String type : i == 0 ? c.supertypes() : i == 1 ? c.types() : c.subtypes())
+                {
+                    int j = 0;
+                    while (j < distinct.length && !type.equalsIgnoreCase(distinct[j]))
+                        j++;
+                    if (j < distinct.length)
+                        found |= 1L << j;
+                    else
+                        other = true;
+                }
+            }
+            return switch (contains) {
+                case CONTAINS_ANY_OF -> distinct.length == 0 || found != 0;
+                case CONTAINS_NONE_OF -> found == 0;
+                case CONTAINS_ALL_OF -> found == all;
+                case CONTAINS_NOT_ALL_OF -> (distinct.length == 0 || found != 0) && found != all;
+                case CONTAINS_EXACTLY -> !repeated && !other && found == all;
+                case CONTAINS_NOT_EXACTLY -> other || found != all;
+            };
+        };
+    }
+
     @Override
     protected void serializeFields(JsonObject fields)
     {
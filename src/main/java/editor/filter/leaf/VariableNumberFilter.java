@@ -92,6 +92,12 @@ public class VariableNumberFilter extends NumberFilter
         return varies ? variable.test(c) : super.test(c);
     }
 
+    @Override
+    public Predicate<Card> compile()
+    {
+        return varies ? variable : super.compile();
+    }
+
     @Override
     protected void serializeFields(JsonObject fields)
     {
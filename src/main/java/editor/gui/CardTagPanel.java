@@ -29,6 +29,7 @@ import editor.database.card.Card;
 import editor.gui.generic.ScrollablePanel;
 import editor.gui.generic.TristateCheckBox;
 import editor.gui.generic.TristateCheckBox.State;
+import editor.util.Interner;
 import editor.util.MouseListenerFactory;
 import editor.util.UnicodeSymbols;
 
@@ -88,7 +89,8 @@ public class CardTagPanel extends ScrollablePanel
                 Card.tags.compute(entry.getKey(), (k, v) -> {
                     if (v == null)
                         v = new HashSet<>();
-                    v.addAll(entry.getValue());
+                    for (String tag : entry.getValue())
+                        v.add(Interner.STRINGS.intern(tag));
                     return v;
                 });
             for (var entry : cardTagPanel.getUntagged().entrySet())
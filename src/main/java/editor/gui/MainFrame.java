@@ -18,12 +18,11 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.beans.PropertyVetoException;
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Files;
@@ -81,6 +80,8 @@ import javax.swing.KeyStroke;
 import javax.swing.ListSelectionModel;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.WindowConstants;
@@ -117,6 +118,7 @@ import editor.database.symbol.Symbol;
 import editor.database.version.DatabaseVersion;
 import editor.database.version.UpdateFrequency;
 import editor.filter.Filter;
+import editor.filter.FilterPlan;
 import editor.filter.leaf.TextFilter;
 import editor.gui.ccp.CCPItems;
 import editor.gui.ccp.data.DataFlavors;
@@ -138,7 +140,6 @@ import editor.gui.generic.TableMouseAdapter;
 import editor.gui.generic.TristateCheckBox;
 import editor.gui.generic.VerticalButtonList;
 import editor.gui.generic.WizardDialog;
-import editor.gui.inventory.InventoryDownloader;
 import editor.gui.inventory.InventoryLoader;
 import editor.gui.settings.SettingsDialog;
 import editor.serialization.AttributeAdapter;
@@ -149,6 +150,7 @@ import editor.serialization.FilterAdapter;
 import editor.serialization.VersionAdapter;
 import editor.serialization.legacy.DeckDeserializer;
 import editor.util.ColorAdapter;
+import editor.util.IndexedBitSet;
 import editor.util.MenuListenerFactory;
 import editor.util.MouseListenerFactory;
 import editor.util.PopupMenuListenerFactory;
@@ -215,6 +217,84 @@ public class MainFrame extends JFrame
         }
     }
 
+    /**
+     * This class is a worker that finds the cards in the inventory that pass a filter in
+     * the background, so the rest of the frame stays responsive while it does.  When it's
+     * done, the filter and the cards that pass it are shown in the inventory table, unless
+     * the worker was cancelled or another one was started after it.
+     *
+     * @author Alec Roelke
+     */
+    private class InventoryFilterWorker extends SwingWorker<IndexedBitSet, Void>
+    {
+        /**
+         * Inventory to filter.
+         */
+        private final Inventory target;
+        /**
+         * Filter to test cards with.
+         */
+        private final Filter filter;
+        /**
+         * Largest number of cards to test on one thread.
+         */
+        private final int threshold;
+
+        /**
+         * Create a new InventoryFilterWorker.
+         *
+         * @param inv inventory to filter
+         * @param f filter to test cards with
+         */
+        public InventoryFilterWorker(Inventory inv, Filter f)
+        {
+            target = inv;
+            filter = f;
+            threshold = SettingsDialog.settings().inventory.filterThreshold;
+        }
+
+        /**
+         * {@inheritDoc}
+         * If filtering takes longer than {@link #SLOW_FILTER_TIME}, the plan that was used
+         * is logged.
+         */
+        @Override
+        protected IndexedBitSet doInBackground() throws Exception
+        {
+            long start = System.nanoTime();
+            IndexedBitSet passed = target.test(filter, threshold, this::isCancelled);
+            long elapsed = (System.nanoTime() - start)/1000000;
+            if (elapsed >= SLOW_FILTER_TIME)
+                System.err.println("warning: filtering the inventory took " + elapsed + " ms using this plan:" + System.lineSeparator() + target.plan(filter));
+            return passed;
+        }
+
+        @Override
+        protected void done()
+        {
+            if (filterWorker == this)
+                filterWorker = null;
+            if (!isCancelled() && target == inventory)
+            {
+                try
+                {
+                    inventory.updateFilter(filter, get());
+                    inventoryModel.fireTableDataChanged();
+                }
+                catch (CancellationException e)
+                {}
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                catch (ExecutionException e)
+                {
+                    JOptionPane.showMessageDialog(MainFrame.this, "Error filtering inventory: " + e.getCause().getMessage() + ".", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }
+    }
+
     /**
      * Default height for displaying card images.
      */
@@ -223,6 +303,16 @@ public class MainFrame extends JFrame
      * Maximum height that the advanced filter editor panel can attain before scrolling.
      */
     public static final int MAX_FILTER_HEIGHT = 300;
+    /**
+     * Number of milliseconds to wait after the user stops typing in the quick-filter bar
+     * before filtering the inventory.
+     */
+    public static final int QUICK_FILTER_DELAY = 250;
+    /**
+     * Number of milliseconds filtering the inventory can take before the plan used for it
+     * is logged.
+     */
+    public static final int SLOW_FILTER_TIME = 1000;
     /**
      * Serializer for saving and loading external information.
      */
@@ -300,6 +390,10 @@ public class MainFrame extends JFrame
      * Model for the table displaying the inventory of all cards.
      */
     private CardTableModel inventoryModel;
+    /**
+     * Worker currently filtering the inventory, or null if it isn't being filtered.
+     */
+    private InventoryFilterWorker filterWorker;
     /**
      * Pane for showing the Oracle text of the currently-selected card.
      */
@@ -677,7 +771,7 @@ public class MainFrame extends JFrame
                                 var lines = Files.readAllLines(importChooser.getSelectedFile().toPath());
                                 if (includeCheckBox.isSelected())
                                 {
-                                    String[] columns = lines.remove(0).split(String.valueOf(delimiterBox.getSelectedItem()));
+                                    String[] columns = DelimitedCardListFormat.split(String.valueOf(delimiterBox.getSelectedItem()), lines.remove(0));
                                     String[][] data = lines.stream().map((s) -> DelimitedCardListFormat.split(delimiterBox.getSelectedItem().toString(), s)).toArray(String[][]::new);
                                     model.setDataVector(data, columns);
                                 }
@@ -992,7 +1086,7 @@ public class MainFrame extends JFrame
                         exportChooser.getSelectedFile()
                     );
                 }
-                catch (UnsupportedEncodingException | FileNotFoundException x)
+                catch (IOException x)
                 {
                     JOptionPane.showMessageDialog(this, "Could not export " + f.deckName() + ": " + x.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
                 }
@@ -1183,11 +1277,7 @@ public class MainFrame extends JFrame
             switch (checkForUpdate(UpdateFrequency.DAILY))
             {
             case UPDATE_NEEDED:
-                if (updateInventory())
-                {
-                    SettingsDialog.setInventoryVersion(newestVersion);
-                    loadInventory();
-                }
+                updateInventory();
                 break;
             case NO_UPDATE:
                 JOptionPane.showMessageDialog(this, "Inventory is up to date.");
@@ -1264,6 +1354,44 @@ public class MainFrame extends JFrame
         });
         helpMenu.add(showExpansionsItem);
 
+        // Explain inventory filter item
+        JMenuItem explainFilterItem = new JMenuItem("Explain Inventory Filter...");
+        explainFilterItem.addActionListener((e) -> {
+            Inventory target = inventory;
+            Filter filter = target.getFilter();
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            new SwingWorker<FilterPlan, Void>()
+            {
+                @Override
+                protected FilterPlan doInBackground()
+                {
+                    return target.analyze(filter);
+                }
+
+                @Override
+                protected void done()
+                {
+                    setCursor(Cursor.getDefaultCursor());
+                    try
+                    {
+                        JTextArea planArea = new JTextArea(get().toString(), 20, 80);
+                        planArea.setEditable(false);
+                        planArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, planArea.getFont().getSize()));
+                        JOptionPane.showMessageDialog(MainFrame.this, new JScrollPane(planArea), "Inventory Filter Plan", JOptionPane.PLAIN_MESSAGE);
+                    }
+                    catch (InterruptedException x)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    catch (ExecutionException x)
+                    {
+                        JOptionPane.showMessageDialog(MainFrame.this, "Error analyzing inventory filter: " + x.getCause().getMessage() + ".", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
+        });
+        helpMenu.add(explainFilterItem);
+
         /* CONTENT PANE */
         // Panel containing all content
         JPanel contentPane = new JPanel(new BorderLayout());
@@ -1452,18 +1580,31 @@ public class MainFrame extends JFrame
             editTagsItem.setEnabled(!getSelectedCards().isEmpty());
         }));
 
+        // Filter the inventory by name a short time after the user stops typing in the quick-filter
+        // bar, so cards aren't filtered again for every keystroke
+        Timer quickFilterTimer = new Timer(QUICK_FILTER_DELAY, (e) -> filterInventory(TextFilter.createQuickFilter(CardAttribute.NAME, nameFilterField.getText().toLowerCase())));
+        quickFilterTimer.setRepeats(false);
+        nameFilterField.getDocument().addDocumentListener(new DocumentChangeListener()
+        {
+            @Override
+            public void update(DocumentEvent e)
+            {
+                quickFilterTimer.restart();
+            }
+        });
+
         // Action to be taken when the user presses the Enter key after entering text into the quick-filter
-        // bar
+        // bar (filter right away)
         nameFilterField.addActionListener((e) -> {
-            inventory.updateFilter(TextFilter.createQuickFilter(CardAttribute.NAME, nameFilterField.getText().toLowerCase()));
-            inventoryModel.fireTableDataChanged();
+            quickFilterTimer.stop();
+            filterInventory(TextFilter.createQuickFilter(CardAttribute.NAME, nameFilterField.getText().toLowerCase()));
         });
 
         // Action to be taken when the clear button is pressed (reset the filter)
         clearButton.addActionListener((e) -> {
             nameFilterField.setText("");
-            inventory.updateFilter(CardAttribute.createFilter(CardAttribute.ANY));
-            inventoryModel.fireTableDataChanged();
+            quickFilterTimer.stop();
+            filterInventory(CardAttribute.createFilter(CardAttribute.ANY));
         });
 
         // Action to be taken when the advanced filter button is pressed (show the advanced filter
@@ -1493,8 +1634,8 @@ public class MainFrame extends JFrame
             if (JOptionPane.showConfirmDialog(this, panelPane, "Advanced Filter", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) == JOptionPane.OK_OPTION)
             {
                 nameFilterField.setText("");
-                inventory.updateFilter(panel.filter());
-                inventoryModel.fireTableDataChanged();
+                quickFilterTimer.stop();
+                filterInventory(panel.filter());
             }
         });
 
@@ -1526,9 +1667,8 @@ public class MainFrame extends JFrame
             @Override
             public void windowOpened(WindowEvent e)
             {
-                if (checkForUpdate(SettingsDialog.settings().inventory.update) == UPDATE_NEEDED && updateInventory())
-                    SettingsDialog.setInventoryVersion(newestVersion);
-                loadInventory();
+                if (checkForUpdate(SettingsDialog.settings().inventory.update) != UPDATE_NEEDED || !updateInventory())
+                    loadInventory();
                 TableSelectionListener listener = new TableSelectionListener(MainFrame.this, inventoryTable, inventory);
                 inventoryTable.addMouseListener(listener);
                 inventoryTable.getSelectionModel().addListSelectionListener(listener);
@@ -1569,9 +1709,9 @@ public class MainFrame extends JFrame
             return;
         }
         CategorySpec spec = new CategorySpec(category);
-        for (final Card c : spec.getBlacklist())
+        for (final Card c : new ArrayList<>(spec.getBlacklist()))
             spec.include(c);
-        for (final Card c : spec.getWhitelist())
+        for (final Card c : new ArrayList<>(spec.getWhitelist()))
             spec.exclude(c);
         SettingsDialog.addPresetCategory(spec);
         JMenuItem categoryItem = new JMenuItem(spec.getName());
@@ -1625,7 +1765,8 @@ public class MainFrame extends JFrame
     {
         try
         {
-            if (!inventoryFile.exists())
+            // If only the other form of the inventory exists, the loader converts it instead of downloading it
+            if (!inventoryFile.exists() && !InventoryLoader.otherForm(inventoryFile).exists())
             {
                 JOptionPane.showMessageDialog(this, inventoryFile.getName() + " not found.  It will be downloaded.", "Update", JOptionPane.WARNING_MESSAGE);
                 try (BufferedReader in = new BufferedReader(new InputStreamReader(versionSite.openStream())))
@@ -1787,12 +1928,52 @@ public class MainFrame extends JFrame
     public void loadInventory()
     {
         setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        inventory = InventoryLoader.loadInventory(this, inventoryFile);
+        setInventory(InventoryLoader.loadInventory(this, inventoryFile));
+        setCursor(Cursor.getDefaultCursor());
+    }
+
+    /**
+     * Filter the inventory in the background and show the cards that pass in the inventory
+     * table when it's done.  If the inventory is already being filtered, that is cancelled,
+     * since its results would be replaced anyway.
+     *
+     * @param f filter to test cards with
+     */
+    private void filterInventory(Filter f)
+    {
+        if (filterWorker != null)
+            filterWorker.cancel(false);
+        filterWorker = new InventoryFilterWorker(inventory, f);
+        filterWorker.execute();
+    }
+
+    /**
+     * Replace the inventory and show it in the inventory table.
+     *
+     * @param inv new inventory
+     */
+    private void setInventory(Inventory inv)
+    {
+        if (filterWorker != null)
+            filterWorker.cancel(false);
+        var storage = inventory == null ? Optional.<Closeable>empty() : inventory.storage();
+        inventory = inv;
         inventory.sort(CardAttribute.NAME.comparingCard());
         inventoryModel = new CardTableModel(inventory, SettingsDialog.settings().inventory.columns);
         inventoryTable.setModel(inventoryModel);
-        setCursor(Cursor.getDefaultCursor());
         System.gc();
+
+        // Closed after collecting garbage so only the old cards that are still in use keep their details
+        storage.ifPresent((s) -> {
+            try
+            {
+                s.close();
+            }
+            catch (IOException e)
+            {
+                System.err.println("warning: could not close card details: " + e.getMessage());
+            }
+        });
     }
 
     /**
@@ -2134,22 +2315,24 @@ public class MainFrame extends JFrame
     }
 
     /**
-     * Download the latest list of cards from the inventory site (default mtgjson.com).  If the
-     * download is taking a while, a progress bar will appear.
+     * Download the latest list of cards from the inventory site (default mtgjson.com) and
+     * load it while it downloads.  If the download is taking a while, a progress bar will
+     * appear.  If the download fails, the inventory is not changed.  Cards that are the
+     * same in the new inventory as in the current one are kept, so open decks still refer
+     * to the cards in the inventory.
      *
      * @return true if the download was successful, and false otherwise.
      */
     public boolean updateInventory()
     {
-        try
-        {
-            return InventoryDownloader.downloadInventory(this, inventorySite, inventoryFile);
-        }
-        catch (IOException e)
-        {
-            JOptionPane.showMessageDialog(this, "Error connecting to inventory site: " + e.getMessage(), "Connection Error", JOptionPane.ERROR_MESSAGE);
-            return false;
-        }
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        var downloaded = InventoryLoader.downloadInventory(this, inventorySite, inventoryFile, newestVersion, inventory);
+        downloaded.ifPresent((inv) -> {
+            SettingsDialog.setInventoryVersion(newestVersion);
+            setInventory(inv);
+        });
+        setCursor(Cursor.getDefaultCursor());
+        return downloaded.isPresent();
     }
 
     /**
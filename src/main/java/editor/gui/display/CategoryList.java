@@ -232,9 +232,9 @@ public class CategoryList extends JList<String>
         if (confirmListClean(c))
         {
             CategorySpec copy = new CategorySpec(c);
-            for (final Card card : copy.getBlacklist())
+            for (final Card card : new ArrayList<>(copy.getBlacklist()))
                 copy.include(card);
-            for (final Card card : copy.getWhitelist())
+            for (final Card card : new ArrayList<>(copy.getWhitelist()))
                 copy.exclude(card);
             categories.add(copy);
             model.addElement(copy.getName());
@@ -301,10 +301,10 @@ public class CategoryList extends JList<String>
         if (confirmListClean(c))
         {
             CategorySpec copy = new CategorySpec(c);
-            for (final Card card : copy.getBlacklist())
+            for (final Card card : new ArrayList<>(copy.getBlacklist()))
                 copy.include(card);
-            for (final Card card : copy.getWhitelist())
-                copy.exclude(card);;
+            for (final Card card : new ArrayList<>(copy.getWhitelist()))
+                copy.exclude(card);
             categories.set(index, copy);
             model.setElementAt(copy.getName(), index);
         }
@@ -4,6 +4,7 @@ import java.awt.BorderLayout;
 import java.awt.CardLayout;
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Dialog;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
@@ -12,13 +13,14 @@ import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.UnsupportedFlavorException;
 import java.awt.event.MouseEvent;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -26,12 +28,15 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -46,6 +51,7 @@ import javax.swing.DropMode;
 import javax.swing.JButton;
 import javax.swing.JColorChooser;
 import javax.swing.JComboBox;
+import javax.swing.JDialog;
 import javax.swing.JInternalFrame;
 import javax.swing.JLabel;
 import javax.swing.JMenu;
@@ -53,6 +59,7 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JSeparator;
 import javax.swing.JSplitPane;
@@ -60,6 +67,7 @@ import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.WindowConstants;
 import javax.swing.border.EtchedBorder;
 import javax.swing.event.InternalFrameAdapter;
@@ -303,6 +311,167 @@ public class EditorFrame extends JInternalFrame
         }
     }
 
+    /**
+     * This class is a worker for exporting a deck to a file.  It writes the deck
+     * and its extra lists one card at a time, so the exported text is never held
+     * in memory all at once.  Comes with a dialog that shows progress and can be
+     * used to cancel the export, in which case the partially-written file is
+     * deleted.  The dialog stays open until the file is closed, so nothing is still
+     * writing to it once the export returns.
+     *
+     * @author Alec Roelke
+     */
+    private class ExportWorker extends SwingWorker<Void, Integer>
+    {
+        /**
+         * Dialog containing the progress bar.
+         */
+        private JDialog dialog;
+        /**
+         * Progress bar to display progress to.
+         */
+        private JProgressBar progressBar;
+        /**
+         * Format to export the lists in.
+         */
+        private CardListFormat format;
+        /**
+         * Main deck to export.
+         */
+        private Deck main;
+        /**
+         * Extra lists to export, by name.
+         */
+        private Map<String, Deck> extras;
+        /**
+         * File to export to.
+         */
+        private File file;
+        /**
+         * Number of cards exported from lists that have been completely written.
+         */
+        private int exported;
+        /**
+         * Whether or not the user has asked to stop exporting.  This is used instead of
+         * {@link #cancel(boolean)}, which would finish this ExportWorker and close the
+         * dialog before the file was closed.
+         */
+        private volatile boolean stopped;
+
+        /**
+         * Create a new ExportWorker.
+         *
+         * @param fmt format to export the lists in
+         * @param m main deck to export
+         * @param e extra lists to export, by name
+         * @param f file to export to
+         */
+        public ExportWorker(CardListFormat fmt, Deck m, Map<String, Deck> e, File f)
+        {
+            format = fmt;
+            main = m;
+            extras = e;
+            file = f;
+            exported = 0;
+            stopped = false;
+
+            dialog = new JDialog(null, Dialog.ModalityType.APPLICATION_MODAL);
+            dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+            progressBar = new JProgressBar();
+            JPanel progressPanel = new JPanel(new BorderLayout(0, 5));
+            dialog.setContentPane(progressPanel);
+            progressPanel.add(new JLabel("Exporting " + f.getName() + "..."), BorderLayout.NORTH);
+            progressPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+            progressPanel.add(progressBar, BorderLayout.CENTER);
+            JPanel cancelPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
+            JButton cancelButton = new JButton("Cancel");
+            cancelButton.addActionListener((v) -> {
+                stopped = true;
+                cancelButton.setEnabled(false);
+            });
+            cancelPanel.add(cancelButton);
+            progressPanel.add(cancelPanel, BorderLayout.SOUTH);
+            dialog.pack();
+            dialog.setLocationRelativeTo(EditorFrame.this.parent);
+
+            progressBar.setMaximum(main.size() + extras.values().stream().mapToInt(Deck::size).sum());
+        }
+
+        /**
+         * Write a list to the file and update the progress bar after each card.
+         *
+         * @param list list to write
+         * @param writer writer to write the list to
+         * @throws IOException if the list can't be written
+         * @throws CancellationException if the export is stopped while the list
+         * is being written
+         */
+        private void write(Deck list, Writer writer) throws IOException, CancellationException
+        {
+            format.format(list, writer, (n) -> {
+                if (stopped)
+                    throw new CancellationException();
+                publish(exported + n);
+            });
+            exported += list.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         * Export the lists, updating the progress bar all the while.  If the export
+         * fails or is stopped, including after the last card has been written, the
+         * file is deleted and this ExportWorker fails with a
+         * {@link CancellationException}.
+         */
+        @Override
+        protected Void doInBackground() throws Exception
+        {
+            try
+            {
+                try (var writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, false), StandardCharsets.UTF_8)))
+                {
+                    if (format.hasHeader())
+                        writer.append(format.header()).append(System.lineSeparator());
+                    write(main, writer);
+                    for (var extra : extras.entrySet())
+                    {
+                        writer.append(System.lineSeparator()).append(extra.getKey()).append(System.lineSeparator());
+                        write(extra.getValue(), writer);
+                    }
+                }
+                if (stopped)
+                    throw new CancellationException();
+            }
+            catch (IOException | RuntimeException e)
+            {
+                Files.deleteIfExists(file.toPath());
+                throw e;
+            }
+            return null;
+        }
+
+        @Override
+        protected void done()
+        {
+            dialog.dispose();
+        }
+
+        /**
+         * Execute this ExportWorker and display the progress dialog.
+         */
+        public void executeAndDisplay()
+        {
+            super.execute();
+            dialog.setVisible(true);
+        }
+
+        @Override
+        protected void process(List<Integer> chunks)
+        {
+            progressBar.setValue(chunks.get(chunks.size() - 1));
+        }
+    }
+
     /**
      * Popup menu listener for a CardTable of this EditorFrame.  It controls the visibility
      * and contents of the include and exclude options.
@@ -1671,44 +1840,56 @@ public class EditorFrame extends JInternalFrame
     }
 
     /**
-     * Export the deck to a different format.
+     * Export the deck to a different format.  The deck is written to the file a
+     * card at a time while a dialog shows progress and allows the export to be
+     * cancelled.  If it is cancelled, the file is deleted.
      *
      * @param format formatter to use for export
-     * @param file file to export to
+     * @param comp comparator to use to sort the cards in each list
      * @param extraNames names of extra lists to include in the export
-     * @throws UnsupportedEncodingException
-     * @throws FileNotFoundException if the file can't be opened
+     * @param file file to export to
+     * @throws IOException if the file can't be written
      * @throws NoSuchElementException if any of the named extra lists aren't in the deck
      */
-    public void export(CardListFormat format, Comparator<? super CardList.Entry> comp, List<String> extraNames, File file) throws UnsupportedEncodingException, FileNotFoundException, NoSuchElementException
+    public void export(CardListFormat format, Comparator<? super CardList.Entry> comp, List<String> extraNames, File file) throws IOException, NoSuchElementException
     {
-        try (PrintWriter wr = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file, false), "UTF8")))
+        var copy = new Deck(deck().current);
+        copy.sort(comp);
+        var extraCopies = new LinkedHashMap<String, Deck>();
+        for (String extra : extraNames)
         {
-            Deck copy;
-
-            if (format.hasHeader())
-                wr.println(format.header());
-            if (!deck().current.isEmpty())
+            var list = extras().stream().filter((l) -> l.name.get().equals(extra)).findAny();
+            if (!list.isPresent())
+                throw new NoSuchElementException("No extra list named " + extra);
+            if (!list.get().current.isEmpty())
             {
-                copy = new Deck(deck().current);
-                copy.sort(comp);
-                wr.print(format.format(copy));
-            }
-            for (String extra : extraNames)
-            {
-                var list = extras().stream().filter((l) -> l.name.get().equals(extra)).findAny();
-                if (!list.isPresent())
-                    throw new NoSuchElementException("No extra list named " + extra);
-                if (!list.get().current.isEmpty())
-                {
-                    copy = new Deck(list.get().current);
-                    copy.sort(comp);
-                    wr.println();
-                    wr.println(extra);
-                    wr.print(format.format(copy));
-                }
+                var extraCopy = new Deck(list.get().current);
+                extraCopy.sort(comp);
+                extraCopies.put(extra, extraCopy);
             }
         }
+
+        var worker = new ExportWorker(format, copy, extraCopies, file);
+        worker.executeAndDisplay();
+        try
+        {
+            worker.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof CancellationException)
+                return;
+            else if (e.getCause() instanceof IOException)
+                throw (IOException)e.getCause();
+            else if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+            else
+                throw new RuntimeException(e.getCause());
+        }
     }
 
     /**
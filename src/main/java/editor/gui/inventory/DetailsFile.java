@@ -0,0 +1,299 @@
+package editor.gui.inventory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import editor.database.card.Card;
+import editor.database.card.CardDetails;
+import editor.database.card.MultiCard;
+
+/**
+ * Storage for the flavor text, printed text, and rulings of the cards in the inventory
+ * in a temporary file, so they don't take up memory when they aren't being shown.  The
+ * details of each card are written one after another, and each card remembers where its
+ * details start.  The details of the cards that were read most recently are cached, since
+ * the same card is often shown several times in a row, and the file is read through a
+ * buffer, so reading the details of cards that are next to each other in the file (like
+ * when searching all of them) doesn't go to the disk for every card.
+ * <p>
+ * The file should be {@link #close() closed} when the inventory it was created for is
+ * replaced, which deletes it.
+ *
+ * @author Alec Roelke
+ */
+public class DetailsFile implements CardDetails.Store, Closeable
+{
+    /** Number of cards whose details are cached. */
+    public static final int CACHE_SIZE = 256;
+    /** Size of the buffer to use when reading and writing details. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Move the details of a collection of cards to a new temporary file.  Faces whose
+     * details are already stored in another file are copied into the new one, so that
+     * file can be closed without affecting these cards.  If the details can't be written,
+     * all of the cards keep their details where they were.
+     *
+     * @param cards cards whose details should be stored
+     * @return The file the details were stored in.
+     * @throws IOException if the details can't be written
+     */
+    public static DetailsFile store(Collection<Card> cards) throws IOException
+    {
+        File file = File.createTempFile("inventory", ".details");
+        file.deleteOnExit();
+
+        var positions = new IdentityHashMap<CardDetails.Holder, Integer>();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE)))
+        {
+            for (Card card : cards)
+            {
+                for (Card face : card instanceof MultiCard ? ((MultiCard)card).faceCards() : List.of(card))
+                {
+                    if (face instanceof CardDetails.Holder && !positions.containsKey(face))
+                    {
+                        positions.put((CardDetails.Holder)face, out.size());
+                        CardDetails details = ((CardDetails.Holder)face).details();
+                        InventorySnapshot.writeText(out, details.flavor);
+                        InventorySnapshot.writeText(out, details.printed);
+                        out.writeInt(details.rulings.size());
+                        for (var ruling : details.rulings.entrySet())
+                        {
+                            out.writeLong(ruling.getKey().getTime());
+                            out.writeInt(ruling.getValue().size());
+                            for (String text : ruling.getValue())
+                                InventorySnapshot.writeText(out, text);
+                        }
+                    }
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            file.delete();
+            throw e;
+        }
+
+        DetailsFile details = new DetailsFile(file);
+        for (var entry : positions.entrySet())
+        {
+            entry.getKey().storeDetails(details, entry.getValue());
+            details.holders.put(entry.getValue(), new WeakReference<>(entry.getKey()));
+        }
+        return details;
+    }
+
+    /**
+     * Stream that reads from {@link DetailsFile#in} through a buffer that can be moved to
+     * any position in the file.  The buffer is only refilled when reading past either end
+     * of it.
+     *
+     * @author Alec Roelke
+     */
+    private class Window extends InputStream
+    {
+        /** Bytes of the file starting at {@link #start}. */
+        private final byte[] buffer;
+        /** Position in the file of the first byte in the buffer. */
+        private long start;
+        /** Number of bytes in the buffer. */
+        private int length;
+        /** Position in the file of the next byte to read. */
+        private long position;
+
+        /**
+         * Create a new, empty Window.
+         */
+        public Window()
+        {
+            buffer = new byte[BUFFER_SIZE];
+            start = 0;
+            length = 0;
+            position = 0;
+        }
+
+        /**
+         * Move to a new position in the file.
+         *
+         * @param p position of the next byte to read
+         */
+        public void seek(long p)
+        {
+            position = p;
+        }
+
+        /**
+         * Make sure the next byte to read is in the buffer, reading from the file if it isn't.
+         *
+         * @return The number of bytes that can be read from the buffer, which is 0 at the
+         * end of the file.
+         * @throws IOException if the file can't be read
+         */
+        private int fill() throws IOException
+        {
+            if (position < start || position >= start + length)
+            {
+                in.seek(position);
+                start = position;
+                length = Math.max(in.read(buffer), 0);
+            }
+            return (int)(start + length - position);
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            if (fill() == 0)
+                return -1;
+            return buffer[(int)(position++ - start)] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            if (len == 0)
+                return 0;
+            int n = Math.min(fill(), len);
+            if (n == 0)
+                return -1;
+            System.arraycopy(buffer, (int)(position - start), b, off, n);
+            position += n;
+            return n;
+        }
+    }
+
+    /** File containing the details. */
+    private final File file;
+    /** File open for reading details. */
+    private final RandomAccessFile in;
+    /** Buffer for reading from {@link #in}. */
+    private final Window window;
+    /** Stream for reading details from {@link #window}. */
+    private final DataInputStream data;
+    /**
+     * Cards whose details were stored in this file, as long as they're still in use, by the
+     * positions of their details.
+     */
+    private final Map<Integer, WeakReference<CardDetails.Holder>> holders;
+    /** Details that were read most recently, by position. */
+    private final Map<Integer, CardDetails> cache;
+    /**
+     * Details of the cards that were still in use when this DetailsFile was closed, by
+     * position, or null if it's open.
+     */
+    private Map<Integer, CardDetails> closed;
+
+    /**
+     * Open a file containing card details.
+     *
+     * @param f file to open
+     * @throws IOException if the file can't be opened
+     */
+    private DetailsFile(File f) throws IOException
+    {
+        file = f;
+        in = new RandomAccessFile(f, "r");
+        window = new Window();
+        data = new DataInputStream(window);
+        holders = new HashMap<>();
+        cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CardDetails> eldest)
+            {
+                return size() > CACHE_SIZE;
+            }
+        };
+        closed = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the details can't be read, a warning is printed and empty details are returned.
+     * After this DetailsFile is closed, the details of the cards that were still in use
+     * are returned for threads that found them here before they were moved.
+     */
+    @Override
+    public synchronized CardDetails read(int position)
+    {
+        if (closed != null)
+            return closed.getOrDefault(position, CardDetails.EMPTY);
+        CardDetails details = cache.get(position);
+        if (details == null)
+        {
+            try
+            {
+                window.seek(position);
+                String flavor = InventorySnapshot.readText(data);
+                String printed = InventorySnapshot.readText(data);
+                var rulings = new TreeMap<Date, List<String>>();
+                int n = data.readInt();
+                for (int i = 0; i < n; i++)
+                {
+                    Date date = new Date(data.readLong());
+                    int m = data.readInt();
+                    var texts = new ArrayList<String>(m);
+                    for (int j = 0; j < m; j++)
+                        texts.add(InventorySnapshot.readText(data));
+                    rulings.put(date, Collections.unmodifiableList(texts));
+                }
+                details = new CardDetails(flavor, printed, rulings);
+                cache.put(position, details);
+            }
+            catch (IOException e)
+            {
+                System.err.println("warning: could not read card details from " + file + ": " + e.getMessage());
+                return CardDetails.EMPTY;
+            }
+        }
+        return details;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Cards whose details are still in this file, like cards from a replaced inventory
+     * that are still in open decks, get their details back in memory first.  Then the file
+     * is deleted.  Threads that are still reading those cards' details, like inventory
+     * searches, can finish doing so even if they found the details here.
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (closed != null)
+            return;
+        var kept = new HashMap<Integer, CardDetails>();
+        for (var entry : holders.entrySet())
+        {
+            CardDetails.Holder holder = entry.getValue().get();
+            if (holder != null && holder.detailsStore() == this)
+            {
+                CardDetails details = read(entry.getKey());
+                kept.put(entry.getKey(), details);
+                holder.storeDetails((p) -> details, 0);
+            }
+        }
+        closed = kept;
+        holders.clear();
+        cache.clear();
+        in.close();
+        file.delete();
+    }
+}
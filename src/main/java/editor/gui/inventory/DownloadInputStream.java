@@ -0,0 +1,196 @@
+package editor.gui.inventory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.URLConnection;
+
+/**
+ * Input stream that downloads a file on a background thread while it's being
+ * read, so that reading (and decompressing and parsing) what has already been
+ * downloaded doesn't hold up the download.  Bytes are passed from the download
+ * thread to the reader through a pipe.  If the connection drops, the download
+ * is resumed from where it stopped if the server allows it.  If the download
+ * fails, the error is thrown by the read that reaches the point where it failed.
+ *
+ * @author Alec Roelke
+ */
+public class DownloadInputStream extends InputStream
+{
+    /**
+     * Number of times to try to resume the download after the connection drops.
+     */
+    public static final int MAX_RETRIES = 3;
+
+    /**
+     * Number of bytes to download, or -1 if it isn't known.
+     */
+    private final long size;
+    /**
+     * Position in the file that the download starts at.
+     */
+    private final long offset;
+    /**
+     * End of the pipe that is read from.
+     */
+    private final PipedInputStream pipe;
+    /**
+     * Thread downloading the file.
+     */
+    private final Thread downloader;
+    /**
+     * Error that stopped the download, if there was one.
+     */
+    private volatile IOException error;
+    /**
+     * Whether or not the reader has closed the stream.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Start downloading a file.
+     *
+     * @param download file to download
+     * @param connection connection opened by {@link HttpDownload#connect(long, boolean)};
+     * if its response is partial, only the rest of the file is downloaded
+     * @param buffer number of bytes that can be downloaded ahead of the reader
+     * @throws IOException if the file can't be downloaded from the connection
+     */
+    public DownloadInputStream(HttpDownload download, URLConnection connection, int buffer) throws IOException
+    {
+        InputStream source = connection.getInputStream();
+        offset = download.offset(connection);
+        size = download.length() < 0 ? -1 : download.length() - offset;
+        pipe = new PipedInputStream(buffer);
+        PipedOutputStream sink = new PipedOutputStream(pipe);
+        error = null;
+        closed = false;
+
+        downloader = new Thread(() -> {
+            try (sink)
+            {
+                InputStream in = source;
+                byte[] data = new byte[Math.min(buffer, 1 << 16)];
+                long received = 0;
+                int retries = 0;
+                while (true)
+                {
+                    try (InputStream current = in)
+                    {
+                        int x;
+                        while ((x = current.read(data)) > 0)
+                        {
+                            sink.write(data, 0, x);
+                            sink.flush();
+                            received += x;
+                        }
+                        if (size < 0 || received >= size)
+                            break;
+                        throw new IOException("connection closed after " + received + " of " + size + " bytes");
+                    }
+                    catch (IOException e)
+                    {
+                        // Only resume if the server sends exactly what hasn't been downloaded yet
+                        if (closed || received == 0 || retries++ >= MAX_RETRIES)
+                            throw e;
+                        var resumed = download.connect(offset + received, false);
+                        if (resumed.isEmpty() || download.offset(resumed.get()) != offset + received)
+                            throw e;
+                        in = resumed.get().getInputStream();
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                // Reported to the reader when it reaches the end of what was downloaded
+                error = e;
+            }
+        }, "Download " + connection.getURL());
+        downloader.setDaemon(true);
+        downloader.start();
+    }
+
+    @Override
+    public int available() throws IOException
+    {
+        return pipe.available();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Closing the stream before the download is finished stops it.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        pipe.close();
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        int r = pipe.read();
+        if (r < 0)
+            checkError();
+        return r;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        int r = pipe.read(b, off, len);
+        if (r < 0)
+            checkError();
+        return r;
+    }
+
+    /**
+     * @return The position in the file that the download started at, which is 0 unless
+     * it continues an earlier one.
+     */
+    public long offset()
+    {
+        return offset;
+    }
+
+    /**
+     * @return <code>true</code> if the download stopped because of an error, and
+     * <code>false</code> otherwise.
+     */
+    public boolean failed()
+    {
+        return error != null;
+    }
+
+    /**
+     * @return The number of bytes to be downloaded, not counting any that were downloaded
+     * before {@link #offset()}, or -1 if it isn't known.
+     */
+    public long size()
+    {
+        return size;
+    }
+
+    /**
+     * Wait for the download thread to stop and throw the error that stopped it
+     * early, if there was one.
+     *
+     * @throws IOException if the download failed
+     */
+    private void checkError() throws IOException
+    {
+        try
+        {
+            downloader.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        if (error != null)
+            throw error;
+    }
+}
@@ -0,0 +1,229 @@
+package editor.gui.inventory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Connection to a file on a web site that can be downloaded in pieces.  The ETag and
+ * Last-Modified headers of the last response are remembered and can be saved to a file
+ * next to the downloaded one, so that a later download can either be skipped if the
+ * file hasn't changed or continue from where an interrupted one stopped.  If the server
+ * doesn't support conditional or partial requests, the whole file is downloaded.
+ * Downloads that are complete and downloads that are still in progress should have their
+ * headers saved separately, so a partial download doesn't make a complete one look
+ * up to date.
+ *
+ * @author Alec Roelke
+ */
+public class HttpDownload
+{
+    /** Extension added to a downloaded file's name to get the name of the file its headers are saved in. */
+    public static final String EXTENSION = ".headers";
+    /** Key for the ETag header in the saved headers. */
+    private static final String ETAG = "ETag";
+    /** Key for the Last-Modified header in the saved headers. */
+    private static final String LAST_MODIFIED = "Last-Modified";
+    /** Pattern for extracting the first byte of a partial response from its Content-Range header. */
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-\\d+/(\\d+|\\*)");
+
+    /**
+     * Get the file that the headers of a downloaded file are saved in.
+     *
+     * @param file downloaded file
+     * @return The file containing the headers from when the file was downloaded.
+     */
+    private static File headersFile(File file)
+    {
+        return new File(file.getPath() + EXTENSION);
+    }
+
+    /**
+     * Delete the saved headers of a file.
+     *
+     * @param file local copy of the file whose headers should be deleted
+     */
+    public static void delete(File file)
+    {
+        headersFile(file).delete();
+    }
+
+    /**
+     * Move the saved headers of a file so they are used for a different local copy of
+     * the same download.
+     *
+     * @param from local copy of the file whose headers should be moved
+     * @param to local copy of the file that should have the headers
+     */
+    public static void move(File from, File to)
+    {
+        File headers = headersFile(from);
+        if (headers.exists())
+        {
+            headersFile(to).delete();
+            headers.renameTo(headersFile(to));
+        }
+    }
+
+    /** URL of the file to download. */
+    private final URL site;
+    /** Headers of the last response, or of the last saved response if there hasn't been one. */
+    private final Properties validators;
+    /** Total size of the file, or -1 if it isn't known. */
+    private long length;
+
+    /**
+     * Create a new HttpDownload for a file, loading the headers from the last time it
+     * was downloaded if there are any.
+     *
+     * @param s URL of the file to download
+     * @param file local copy of the file whose headers should be loaded
+     */
+    public HttpDownload(URL s, File file)
+    {
+        site = s;
+        validators = new Properties();
+        length = -1;
+        File headers = headersFile(file);
+        if (file.exists() && headers.exists())
+        {
+            try (FileInputStream in = new FileInputStream(headers))
+            {
+                validators.load(in);
+            }
+            catch (IOException e)
+            {
+                validators.clear();
+            }
+        }
+    }
+
+    /**
+     * Connect to the site to download the file.  If part of the file has already been
+     * downloaded, only the rest of it is requested, but only if it hasn't changed since
+     * that part was downloaded; otherwise the response contains the whole file.  Use
+     * {@link #offset(URLConnection)} to tell which happened.
+     *
+     * @param offset number of bytes of the file that have already been downloaded
+     * @param conditional if there is no partial download, only download the file if it
+     * has changed since the saved headers were recorded
+     * @return A connection whose response contains the file starting at the position given
+     * by {@link #offset(URLConnection)}, or an empty value if the request was conditional
+     * and the file hasn't changed.
+     * @throws IOException if the site can't be reached or responds with an error
+     */
+    public Optional<URLConnection> connect(long offset, boolean conditional) throws IOException
+    {
+        URLConnection connection = site.openConnection();
+        String etag = validators.getProperty(ETAG);
+        String modified = validators.getProperty(LAST_MODIFIED);
+        if (offset > 0 && (etag != null || modified != null))
+        {
+            connection.setRequestProperty("Range", "bytes=" + offset + "-");
+            connection.setRequestProperty("If-Range", etag != null ? etag : modified);
+        }
+        else if (offset == 0 && conditional)
+        {
+            if (etag != null)
+                connection.setRequestProperty("If-None-Match", etag);
+            if (modified != null)
+                connection.setRequestProperty("If-Modified-Since", modified);
+        }
+
+        if (connection instanceof HttpURLConnection)
+        {
+            HttpURLConnection http = (HttpURLConnection)connection;
+            int status = http.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED)
+            {
+                http.disconnect();
+                return Optional.empty();
+            }
+            else if (status == 416 && offset > 0)
+            {
+                // The partial download can't be continued, so start over
+                http.disconnect();
+                return connect(0, false);
+            }
+            else if (status >= 400)
+            {
+                http.disconnect();
+                throw new IOException(site + ": " + status + " " + http.getResponseMessage());
+            }
+        }
+
+        if (offset(connection) == 0)
+        {
+            validators.clear();
+            if (connection.getHeaderField(ETAG) != null)
+                validators.setProperty(ETAG, connection.getHeaderField(ETAG));
+            if (connection.getHeaderField(LAST_MODIFIED) != null)
+                validators.setProperty(LAST_MODIFIED, connection.getHeaderField(LAST_MODIFIED));
+        }
+        long size = connection.getContentLengthLong();
+        length = size < 0 ? -1 : offset(connection) + size;
+        return Optional.of(connection);
+    }
+
+    /**
+     * @return The total size of the file in bytes according to the last response, or -1 if
+     * it isn't known.
+     */
+    public long length()
+    {
+        return length;
+    }
+
+    /**
+     * Get the position in the file that a connection's response starts at.
+     *
+     * @param connection connection returned by {@link #connect(long, boolean)}
+     * @return The number of bytes of the file that the response skips, which is 0 unless
+     * it's a partial response.
+     */
+    public long offset(URLConnection connection)
+    {
+        if (connection instanceof HttpURLConnection)
+        {
+            try
+            {
+                if (((HttpURLConnection)connection).getResponseCode() != HttpURLConnection.HTTP_PARTIAL)
+                    return 0;
+            }
+            catch (IOException e)
+            {
+                return 0;
+            }
+            String range = connection.getHeaderField("Content-Range");
+            if (range != null)
+            {
+                Matcher m = CONTENT_RANGE.matcher(range);
+                if (m.matches())
+                    return Long.parseLong(m.group(1));
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Save the headers of the last response so they can be used for the next download.
+     *
+     * @param file local copy of the file the headers are for
+     * @throws IOException if the headers can't be saved
+     */
+    public void save(File file) throws IOException
+    {
+        try (FileOutputStream out = new FileOutputStream(headersFile(file)))
+        {
+            validators.store(out, site.toString());
+        }
+    }
+}
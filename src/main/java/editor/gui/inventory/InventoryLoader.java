@@ -8,16 +8,27 @@ import java.awt.Frame;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -26,17 +37,27 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.TreeMap;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
-import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -61,6 +82,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 
 import editor.collection.Inventory;
 import editor.database.FormatConstraints;
@@ -73,6 +95,7 @@ import editor.database.attributes.ManaType;
 import editor.database.attributes.Rarity;
 import editor.database.card.Card;
 import editor.database.card.CardLayout;
+import editor.database.card.CardStore;
 import editor.database.card.FlipCard;
 import editor.database.card.MeldCard;
 import editor.database.card.ModalCard;
@@ -85,6 +108,9 @@ import editor.filter.leaf.options.multi.SubtypeFilter;
 import editor.filter.leaf.options.multi.SupertypeFilter;
 import editor.gui.MainFrame;
 import editor.gui.settings.SettingsDialog;
+import editor.util.Interner;
+import editor.util.ProgressInputStream;
+import editor.util.TeeInputStream;
 
 /**
  * Worker that loads the JSON inventory file into memory and displays progress in a
@@ -95,6 +121,47 @@ import editor.gui.settings.SettingsDialog;
 public class InventoryLoader extends SwingWorker<Inventory, String>
 {
     private static final DatabaseVersion VER_5_0_0 = new DatabaseVersion(5, 0, 0);
+    /**
+     * Properties of an expansion that are used for creating it and its cards.  Anything
+     * else in the expansion (tokens, translations, booster contents, etc.) is skipped
+     * without being parsed.
+     */
+    private static final Set<String> EXPANSION_PROPERTIES = Set.of("name", "block", "code", "releaseDate", "cards");
+
+    /**
+     * Cards created from an expansion in the inventory file, along with any warnings that
+     * came up while creating them.
+     *
+     * @author Alec Roelke
+     */
+    private static class ExpansionCards
+    {
+        /** Cards in the expansion. */
+        public final List<Card> cards;
+        /** Warnings from creating the cards. */
+        public final List<String> errors;
+
+        /**
+         * Create a new, empty ExpansionCards.
+         */
+        public ExpansionCards()
+        {
+            cards = new ArrayList<>();
+            errors = new ArrayList<>();
+        }
+
+        /**
+         * Add the cards and warnings from the expansion to the overall lists.
+         *
+         * @param c list of all loaded cards
+         * @param e list of all warnings
+         */
+        public void addTo(List<Card> c, List<String> e)
+        {
+            c.addAll(cards);
+            e.addAll(errors);
+        }
+    }
 
     /**
      * Load the inventory into memory from disk. Display a dialog indicating showing progress
@@ -104,6 +171,43 @@ public class InventoryLoader extends SwingWorker<Inventory, String>
      * @param file file to load the inventory from
      */
     public static Inventory loadInventory(Frame owner, File file)
+    {
+        return load(owner, new InventoryLoader(file, null, SettingsDialog.settings().inventory.version, null)).orElseGet(Inventory::new);
+    }
+
+    /**
+     * Download the inventory and load it into memory at the same time.  The archive is
+     * decompressed as it's downloaded and parsed as it's decompressed, so loading takes
+     * about as long as downloading.  The downloaded inventory replaces the one on disk
+     * only if it's loaded successfully.  If an inventory is already loaded, the new one
+     * is compared with it by Scryfall ID so cards that haven't changed keep their existing
+     * objects, and the cards that were added, removed, or changed are reported.  Display a
+     * dialog showing progress and allowing cancellation.
+     * 
+     * @param owner frame for setting the location of the dialog
+     * @param site URL of the zipped inventory to download
+     * @param file file to store the inventory in, which is stored as the downloaded
+     * archive if it's a zip file and decompressed otherwise
+     * @param version version of the inventory being downloaded
+     * @param previous inventory that is currently loaded, or null if there isn't one
+     * @return The inventory that was downloaded, or an empty value if it couldn't be
+     * downloaded or the download was cancelled.
+     * @see InventoryUpdate
+     */
+    public static Optional<Inventory> downloadInventory(Frame owner, URL site, File file, DatabaseVersion version, Inventory previous)
+    {
+        return load(owner, new InventoryLoader(file, site, version, previous));
+    }
+
+    /**
+     * Run an InventoryLoader, displaying a dialog showing progress and allowing cancellation.
+     * 
+     * @param owner frame for setting the location of the dialog
+     * @param loader loader to run
+     * @return The inventory that was loaded, or an empty value if there was an error or
+     * loading was cancelled.
+     */
+    private static Optional<Inventory> load(Frame owner, InventoryLoader loader)
     {
         JDialog dialog = new JDialog(owner, "Loading Inventory", Dialog.ModalityType.APPLICATION_MODAL);
         dialog.setResizable(false);
@@ -137,13 +241,14 @@ public class InventoryLoader extends SwingWorker<Inventory, String>
         contentPanel.add(progressPane);
         contentPanel.add(Box.createVerticalStrut(BORDER));
 
-        InventoryLoader loader = new InventoryLoader(file, (c) -> {
+        loader.consumer = (c) -> {
             progressLabel.setText(c);
             progressArea.append(c + "\n");
-        }, () -> {
+        };
+        loader.finished = () -> {
             dialog.setVisible(false);
             dialog.dispose();
-        });
+        };
         loader.addPropertyChangeListener((e) -> {
             if ("progress".equals(e.getPropertyName()))
             {
@@ -178,10 +283,10 @@ public class InventoryLoader extends SwingWorker<Inventory, String>
         loader.execute();
         dialog.setLocationRelativeTo(owner);
         dialog.setVisible(true);
-        Inventory result = new Inventory();
+        Optional<Inventory> result = Optional.empty();
         try
         {
-            result = loader.get();
+            result = Optional.of(loader.get());
         }
         catch (InterruptedException | ExecutionException e)
         {
@@ -206,12 +311,35 @@ public class InventoryLoader extends SwingWorker<Inventory, String>
                 SettingsDialog.setShowInventoryWarnings(!suppressBox.isSelected());
             });
         }
+        if (result.isPresent() && loader.update != null && !loader.update.isEmpty())
+        {
+            SwingUtilities.invokeLater(() -> {
+                StringJoiner join = new StringJoiner("<br>", "<html>", "</html>");
+                join.add("Inventory updated: " + loader.update + ".");
+                if (!loader.update.added().isEmpty())
+                {
+                    join.add("New cards include " + loader.update.added().stream().limit(10).map((c) -> c.unifiedName() + " (" + c.expansion() + ")").collect(Collectors.joining(", ")) +
+                             (loader.update.added().size() > 10 ? ", and more." : "."));
+                }
+                JOptionPane.showMessageDialog(owner, join.toString(), "Inventory Update", JOptionPane.INFORMATION_MESSAGE);
+            });
+        }
         SettingsDialog.setInventoryWarnings(loader.warnings());
         return result;
     }
 
     /** File to load from. */
     private File file;
+    /** Site to download the inventory from, or null to load it from {@link #file}. */
+    private URL site;
+    /** Version of the inventory being loaded. */
+    private DatabaseVersion inventoryVersion;
+    /** Inventory that is being replaced, or null if there isn't one. */
+    private Inventory previous;
+    /** Differences between {@link #previous} and the loaded inventory, or null if there is no previous one. */
+    private InventoryUpdate update;
+    /** Hashes of the JSON records of the loaded cards, by Scryfall ID. */
+    private Map<String, Long> records;
     /** List of errors that occur during loading. */
     private List<String> errors;
     /** Action to perform on each chunk during process(). */
@@ -222,17 +350,23 @@ public class InventoryLoader extends SwingWorker<Inventory, String>
     /**
      * Create a new InventoryWorker.
      *
-     * @param f #File to load
-     * @param c function to perform on each update
-     * @param d function to perform when done loading
+     * @param f #File to load, or to store the inventory in if it's downloaded
+     * @param s URL to download the inventory from, or null to load it from the file
+     * @param v version of the inventory
+     * @param p inventory being replaced, or null if there isn't one
      */
-    private InventoryLoader(File f, Consumer<String> c, Runnable d)
+    private InventoryLoader(File f, URL s, DatabaseVersion v, Inventory p)
     {
         super();
         file = f;
-        consumer = c;
+        site = s;
+        inventoryVersion = v;
+        previous = p;
+        update = null;
+        records = new ConcurrentHashMap<>();
+        consumer = (c) -> {};
         errors = new ArrayList<>();
-        finished = d;
+        finished = () -> {};
     }
 
     /**
@@ -401,76 +535,398 @@ public class InventoryLoader extends SwingWorker<Inventory, String>
     }
 
     /**
-     * {@inheritDoc}
-     * Import a list of all cards that exist in Magic: the Gathering from a JSON file downloaded from
-     * {@link "http://www.mtgjson.com"}.  Also populate the lists of types and expansions (and their blocks).
+     * Read the next expansion from a JSON stream.  Only the properties in
+     * {@link #EXPANSION_PROPERTIES} are kept; the rest are skipped.
+     * 
+     * @param reader stream to read from, which should be positioned at the start of the
+     * expansion's object
+     * @param parser parser used to create trees for the expansion's properties
+     * @return a JSON object containing the properties needed to create the expansion
+     * and its cards.
+     * @throws IOException if the stream can't be read
+     */
+    private JsonObject readExpansion(JsonReader reader, JsonParser parser) throws IOException
+    {
+        JsonObject expansion = new JsonObject();
+        reader.beginObject();
+        while (reader.hasNext())
+        {
+            String property = reader.nextName();
+            if (EXPANSION_PROPERTIES.contains(property))
+                expansion.add(property, parser.parse(reader));
+            else
+                reader.skipValue();
+        }
+        reader.endObject();
+        return expansion;
+    }
+
+    /**
+     * Hash some JSON text using 64-bit FNV-1a.
      *
-     * @return The inventory of cards that can be added to a deck.
+     * @param seed hash of the text that came before it, or 0 if there wasn't any
+     * @param text text to hash
+     * @return A hash of the text, which differs for different texts with high probability.
      */
-    @Override
-    protected Inventory doInBackground() throws Exception
+    private static long hash(long seed, String text)
+    {
+        long h = seed ^ 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++)
+        {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * Wrap a stream containing the inventory so that reading it reports progress.
+     *
+     * @param in stream to wrap
+     * @param length number of bytes in the stream, or a negative number if it isn't known
+     * @return A stream that reports progress reading the inventory, or the original stream if
+     * its length isn't known.
+     */
+    private InputStream track(InputStream in, long length)
+    {
+        if (length <= 0)
+            return in;
+        return new ProgressInputStream(in, (o, n) -> setProgress((int)Math.min(n*100/length, 100)));
+    }
+
+    /**
+     * Open the first entry of a zip archive containing the inventory.  The stream is closed if
+     * the entry can't be opened.
+     *
+     * @param in stream containing the archive
+     * @return A stream containing the decompressed contents of the archive's first entry.
+     * @throws IOException if the archive can't be read or is empty
+     */
+    private InputStream unzip(InputStream in) throws IOException
+    {
+        var zip = new ZipInputStream(in);
+        try
+        {
+            if (zip.getNextEntry() == null)
+                throw new IOException(file.getName() + " is empty");
+            return zip;
+        }
+        catch (IOException e)
+        {
+            zip.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the other form of an inventory file, which is the archive if the file is the
+     * decompressed inventory and the decompressed inventory if it's the archive.
+     *
+     * @param file inventory file
+     * @return The file the inventory would be in if it were kept the other way.
+     */
+    public static File otherForm(File file)
+    {
+        String path = file.getPath();
+        return new File(path.endsWith(".zip") ? path.substring(0, path.length() - 4) : path + ".zip");
+    }
+
+    /**
+     * Create the inventory file from its other form, so that changing whether or not the
+     * inventory is kept compressed doesn't require downloading it again.  The inventory is
+     * compressed into or decompressed from the first entry of the archive.  The headers
+     * saved from downloading it move to the new file, but the other form isn't deleted
+     * until the inventory has been loaded from the new one.
+     *
+     * @param from other form of the inventory file
+     * @throws IOException if the inventory can't be converted
+     * @see #otherForm(File)
+     */
+    private void convert(File from) throws IOException
     {
-        final DateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        boolean compressed = file.getName().endsWith(".zip");
+        File tmp = new File(file.getPath() + ".tmp");
+        try
+        {
+            publish((compressed ? "Compressing " : "Decompressing ") + from.getName() + "...");
+            InputStream tracked = track(new FileInputStream(from), from.length());
+            if (compressed)
+            {
+                try (tracked; var out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))))
+                {
+                    out.putNextEntry(new ZipEntry(from.getName()));
+                    copy(tracked, out);
+                }
+            }
+            else
+            {
+                try (var in = unzip(tracked); var out = new BufferedOutputStream(new FileOutputStream(tmp)))
+                {
+                    copy(in, out);
+                }
+            }
+            if (!isCancelled())
+            {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                HttpDownload.move(from, file);
+            }
+        }
+        finally
+        {
+            tmp.delete();
+        }
+    }
 
+    /**
+     * Copy data from one stream to another until there is no more or this worker is
+     * cancelled.  Neither stream is closed.
+     *
+     * @param in stream to copy from
+     * @param out stream to copy to
+     * @throws IOException if the data can't be copied
+     */
+    private void copy(InputStream in, OutputStream out) throws IOException
+    {
+        byte[] data = new byte[1 << 16];
+        int n;
+        while (!isCancelled() && (n = in.read(data)) > 0)
+            out.write(data, 0, n);
+    }
+
+    /**
+     * Load cards from the inventory file.  If it's a zip file, the inventory is decompressed
+     * from its first entry as it's read.
+     *
+     * @return The list of cards in the inventory file, which is empty if loading was cancelled.
+     * @throws IOException if the inventory file can't be read
+     * @throws ParseException if the inventory version can't be parsed
+     * @throws InterruptedException if this worker is interrupted while waiting for an expansion to load
+     * @throws ExecutionException if an expansion can't be loaded
+     */
+    private List<Card> readCards() throws IOException, ParseException, InterruptedException, ExecutionException
+    {
         publish("Opening " + file.getName() + "...");
 
+        InputStream tracked = track(new FileInputStream(file), file.length());
+        try (InputStream in = file.getName().endsWith(".zip") ? unzip(tracked) : tracked)
+        {
+            return loadCards(in);
+        }
+    }
+
+    /**
+     * Get the file that a download of the inventory is saved in until it's complete.
+     *
+     * @param file inventory file
+     * @return The file containing the part of the inventory that has been downloaded.
+     */
+    private static File partialFile(File file)
+    {
+        return new File(file.getPath() + ".part");
+    }
+
+    /**
+     * Download the inventory and load cards from it as it downloads.  The downloaded data is
+     * appended to a partial file as it's read, along with the headers needed to continue it,
+     * so that if downloading fails or is cancelled the next download only has to request the
+     * rest; if what was downloaded can't be loaded, it's discarded instead.  If the
+     * connection continues an earlier download, the part that was already downloaded is
+     * read from the partial file first.  Once loading is done, the partial file replaces
+     * the inventory file if it's a zip file; otherwise the decompressed contents, which
+     * are written to a temporary file as they're read, do.
+     *
+     * @param download inventory to download
+     * @param connection connection to download the inventory from
+     * @return The list of cards in the downloaded inventory, which is empty if loading was
+     * cancelled.
+     * @throws IOException if the inventory can't be downloaded or saved
+     * @throws ParseException if the inventory version can't be parsed
+     * @throws InterruptedException if this worker is interrupted while waiting for an expansion to load
+     * @throws ExecutionException if an expansion can't be loaded
+     */
+    private List<Card> downloadCards(HttpDownload download, URLConnection connection) throws IOException, ParseException, InterruptedException, ExecutionException
+    {
+        boolean compressed = file.getName().endsWith(".zip");
+        File partial = partialFile(file);
+        File tmp = new File(file.getPath() + ".tmp");
+        boolean resumable = true;
+        try
+        {
+            List<Card> cards;
+            int buffer = Math.max(SettingsDialog.settings().inventory.downloadBuffer, 1)*1024;
+            try (var in = new DownloadInputStream(download, connection, buffer); var out = new BufferedOutputStream(new FileOutputStream(partial, in.offset() > 0)))
+            {
+                InputStream archive = new TeeInputStream(in, out);
+                if (in.offset() > 0)
+                {
+                    publish("Continuing download from " + site + "...");
+                    archive = new SequenceInputStream(new FileInputStream(partial), archive);
+                }
+                else
+                {
+                    publish("Downloading " + site + "...");
+                    download.save(partial);
+                }
+                archive = track(archive, download.length());
+                InputStream json = unzip(archive);
+                try (var decompressed = compressed ? OutputStream.nullOutputStream() : new BufferedOutputStream(new FileOutputStream(tmp)))
+                {
+                    if (!compressed)
+                        json = new TeeInputStream(json, decompressed);
+                    cards = loadCards(json);
+
+                    // The parser may stop before the end of the data, but all of it needs to be saved
+                    if (!isCancelled())
+                    {
+                        json.transferTo(OutputStream.nullOutputStream());
+                        archive.transferTo(OutputStream.nullOutputStream());
+                    }
+                }
+                catch (IOException | ParseException | ExecutionException | RuntimeException e)
+                {
+                    // Only continue the download later if it failed, not if what was downloaded is bad
+                    resumable = in.failed();
+                    throw e;
+                }
+                finally
+                {
+                    archive.close();
+                }
+            }
+            if (!isCancelled())
+            {
+                Files.move((compressed ? partial : tmp).toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                partial.delete();
+                HttpDownload.delete(partial);
+                try
+                {
+                    download.save(file);
+                }
+                catch (IOException e)
+                {
+                    System.err.println("warning: could not save headers for " + file.getName() + ": " + e.getMessage());
+                }
+            }
+            return cards;
+        }
+        finally
+        {
+            tmp.delete();
+            if (!resumable)
+            {
+                partial.delete();
+                HttpDownload.delete(partial);
+            }
+        }
+    }
+
+    /**
+     * Import a list of all cards that exist in Magic: the Gathering from a JSON file downloaded from
+     * {@link "http://www.mtgjson.com"}.  Also populate the lists of types and expansions (and their blocks).
+     * The stream is not closed.
+     *
+     * @param in stream containing the inventory JSON
+     * @return The list of cards in the inventory file, which is empty if loading was cancelled.
+     * @throws IOException if the inventory file can't be read
+     * @throws ParseException if the inventory version can't be parsed
+     * @throws InterruptedException if this worker is interrupted while waiting for an expansion to load
+     * @throws ExecutionException if an expansion can't be loaded
+     */
+    private List<Card> loadCards(InputStream in) throws IOException, ParseException, InterruptedException, ExecutionException
+    {
         var cards = new ArrayList<Card>();
-        var faces = new HashMap<Card, List<String>>();
+        var faces = new ConcurrentHashMap<Card, List<String>>();
         var expansions = new HashSet<Expansion>();
         var blockNames = new HashSet<String>();
-        var multiUUIDs = new HashMap<String, Card>();
-        var facesNames = new HashMap<Card, List<String>>();
-        var otherFaceIds = new HashMap<Card, List<String>>();
+        var multiUUIDs = new ConcurrentHashMap<String, Card>();
+        var facesNames = new ConcurrentHashMap<Card, List<String>>();
+        var otherFaceIds = new ConcurrentHashMap<Card, List<String>>();
+
+        // Single-faced cards whose JSON records haven't changed since the inventory being
+        // replaced was loaded are kept instead of being created again
+        var reusable = new HashMap<String, Card>();
+        Map<String, Long> previousRecords = previous == null ? Collections.emptyMap() : previous.records();
+        if (!previousRecords.isEmpty())
+            for (Card c : previous)
+                if (!c.layout().isMultiFaced)
+                    reusable.put(c.scryfallid().get(0), c);
 
-        // Read the inventory file
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF8")))
+        // Expansions are read from the file in order, but their cards are created on a pool of
+        // threads.  At most a few expansions per thread are waiting at a time to limit memory use.
+        final int threads = Math.max(SettingsDialog.settings().inventory.threads, 1);
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        var pending = new ArrayDeque<Future<ExpansionCards>>();
+        JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(in, "UTF8")));
+        try
         {
             publish("Parsing " + file.getName() + "...");
 
-            JsonObject root = new JsonParser().parse(reader).getAsJsonObject();
-            DatabaseVersion version = root.has("meta") ?
-                new DatabaseVersion(root.get("meta").getAsJsonObject().get("version").getAsString()) :
-                new DatabaseVersion(0, 0, 0); // Anything less than 5.0.0 will do for pre-5.0.0 databases
-
-            var entries = (version.compareTo(VER_5_0_0) < 0 ? root : root.get("data").getAsJsonObject()).entrySet();
-            int numCards = 0;
-            for (var setNode : entries)
-                numCards += setNode.getValue().getAsJsonObject().get("cards").getAsJsonArray().size();
-
-            // We don't use String.intern() here because the String pool that is maintained must include extra data that adds several MB
-            // to the overall memory consumption of the inventory
-            var costs = new HashMap<String, ManaCost>();
-            var colorLists = new HashMap<String, List<ManaType>>();
-            var allSupertypes = new HashMap<String, String>();
-            var supertypeSets = new HashMap<String, Set<String>>();
-            var allTypes = new HashMap<String, String>();
-            var typeSets = new HashMap<String, Set<String>>();
-            var allSubtypes = new HashMap<String, String>();
-            var subtypeSets = new HashMap<String, Set<String>>();
-            var printedTypes = new HashMap<String, String>();
-            var texts = new HashMap<String, String>();
-            var flavors = new HashMap<String, String>();
-            var artists = new HashMap<String, String>();
-            var formats = new HashMap<>(FormatConstraints.FORMAT_NAMES.stream().collect(Collectors.toMap(Function.identity(), Function.identity())));
-            var numbers = new HashMap<String, String>();
-            var stats = new HashMap<String, CombatStat>();
-            var loyalties = new HashMap<String, Loyalty>();
-            var rulingDates = new HashMap<String, Date>();
-            var rulingContents = new HashMap<String, String>();
+            JsonParser parser = new JsonParser();
+            DatabaseVersion version = new DatabaseVersion(0, 0, 0); // Anything less than 5.0.0 will do for pre-5.0.0 databases
+            boolean inData = false;
+
+            // Strings are shared through the global interning pool so that strings created after
+            // loading can share them too.  Other values are only shared among the cards being
+            // loaded.  These are concurrent so expansions can be loaded in parallel.
+            var costs = new ConcurrentHashMap<String, ManaCost>();
+            var colorLists = new ConcurrentHashMap<String, List<ManaType>>();
+            var allSupertypes = ConcurrentHashMap.<String>newKeySet();
+            var supertypeSets = new ConcurrentHashMap<String, Set<String>>();
+            var allTypes = ConcurrentHashMap.<String>newKeySet();
+            var typeSets = new ConcurrentHashMap<String, Set<String>>();
+            var allSubtypes = ConcurrentHashMap.<String>newKeySet();
+            var subtypeSets = new ConcurrentHashMap<String, Set<String>>();
+            var formats = ConcurrentHashMap.<String>newKeySet();
+            var stats = new ConcurrentHashMap<String, CombatStat>();
+            var loyalties = new ConcurrentHashMap<String, Loyalty>();
+            var rulingDates = new ConcurrentHashMap<String, Date>();
             publish("Reading cards from " + file.getName() + "...");
             setProgress(0);
-            for (var setNode : entries)
+            reader.beginObject();
+            while (true)
             {
                 if (isCancelled())
                 {
                     expansions.clear();
                     blockNames.clear();
                     cards.clear();
-                    return new Inventory();
+                    return cards;
+                }
+                while (!pending.isEmpty() && (pending.size() > 2*threads || pending.peek().isDone()))
+                    pending.remove().get().addTo(cards, errors);
+
+                // Expansions are read one at a time so only one of them is ever held in memory
+                // as a JSON tree.  For 5.0.0 and later, they're nested inside a "data" object
+                // which is preceded by a "meta" object containing the version.
+                if (!reader.hasNext())
+                {
+                    if (!inData)
+                    {
+                        while (!pending.isEmpty())
+                            pending.remove().get().addTo(cards, errors);
+                        break;
+                    }
+                    reader.endObject();
+                    inData = false;
+                    continue;
+                }
+                String key = reader.nextName();
+                if (!inData && key.equals("meta"))
+                {
+                    version = new DatabaseVersion(parser.parse(reader).getAsJsonObject().get("version").getAsString());
+                    continue;
+                }
+                else if (!inData && key.equals("data"))
+                {
+                    if (version.compareTo(VER_5_0_0) < 0)
+                        version = VER_5_0_0;
+                    reader.beginObject();
+                    inData = true;
+                    continue;
                 }
 
                 // Create the new Expansion
-                JsonObject setProperties = setNode.getValue().getAsJsonObject();
+                JsonObject setProperties = readExpansion(reader, parser);
                 JsonArray setCards = setProperties.get("cards").getAsJsonArray();
                 Expansion set = new Expansion(
                     setProperties.get("name").getAsString(),
@@ -482,176 +938,238 @@ public class InventoryLoader extends SwingWorker<Inventory, String>
                 expansions.add(set);
                 blockNames.add(set.block);
                 publish("Loading cards from " + set + "...");
+                final long setHash = hash(0, String.join("\n", set.name, set.block, set.code, String.valueOf(set.count), set.releaseDate.toString()));
 
-                for (JsonElement cardElement : setCards)
-                {
-                    // Create the new card for the expansion
-                    JsonObject card = cardElement.getAsJsonObject();
+                final DatabaseVersion setVersion = version;
+                Supplier<ExpansionCards> task = () -> {
+                    final DateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+                    var loaded = new ExpansionCards();
+                    for (JsonElement cardElement : setCards)
+                    {
+                        // Create the new card for the expansion
+                        JsonObject card = cardElement.getAsJsonObject();
 
-                    // Card's multiverseid and Scryfall id
-                    String scryfallid = (version.compareTo(VER_5_0_0) < 0 ? card.get("scryfallId") : card.get("identifiers").getAsJsonObject().get("scryfallId")).getAsString();
-                    int multiverseid = Optional.ofNullable(version.compareTo(VER_5_0_0) < 0 ? card.get("multiverseId") : card.get("identifiers").getAsJsonObject().get("multiverseId")).map(JsonElement::getAsInt).orElse(-1);
+                        // Card's multiverseid and Scryfall id
+                        String scryfallid = (setVersion.compareTo(VER_5_0_0) < 0 ? card.get("scryfallId") : card.get("identifiers").getAsJsonObject().get("scryfallId")).getAsString();
+                        int multiverseid = Optional.ofNullable(setVersion.compareTo(VER_5_0_0) < 0 ? card.get("multiverseId") : card.get("identifiers").getAsJsonObject().get("multiverseId")).map(JsonElement::getAsInt).orElse(-1);
 
-                    // Card's name
-                    String name = card.get(card.has("faceName") ? "faceName" : "name").getAsString();
+                        // Card's name
+                        String name = Interner.STRINGS.intern(card.get(card.has("faceName") ? "faceName" : "name").getAsString());
 
-                    // If the card is a token, skip it
-                    CardLayout layout;
-                    try
-                    {
-                        layout = CardLayout.valueOf(card.get("layout").getAsString().toUpperCase().replaceAll("[^A-Z]", "_"));
-                    }
-                    catch (IllegalArgumentException e)
-                    {
-                        errors.add(name + " (" + set + "): " + e.getMessage());
-                        continue;
-                    }
+                        // If the card is a token, skip it
+                        CardLayout layout;
+                        try
+                        {
+                            layout = CardLayout.valueOf(card.get("layout").getAsString().toUpperCase().replaceAll("[^A-Z]", "_"));
+                        }
+                        catch (IllegalArgumentException e)
+                        {
+                            loaded.errors.add(name + " (" + set + "): " + e.getMessage());
+                            continue;
+                        }
 
-                    // Rulings
-                    var rulings = new TreeMap<Date, List<String>>();
-                    if (card.has("rulings"))
-                    {
-                        for (JsonElement l : card.get("rulings").getAsJsonArray())
+                        // If the card's record hasn't changed, keep the card from the inventory being replaced
+                        long record = hash(setHash, card.toString());
+                        records.merge(scryfallid, record, Long::sum);
+                        Card old = layout.isMultiFaced ? null : reusable.get(scryfallid);
+                        Card c;
+                        if (old != null && Objects.equals(previousRecords.get(scryfallid), record))
+                        {
+                            c = old;
+                            allSupertypes.addAll(c.supertypes());
+                            allTypes.addAll(c.types());
+                            allSubtypes.addAll(c.subtypes());
+                            formats.addAll(c.legality().keySet());
+                            formats.addAll(c.commandFormats());
+                        }
+                        else
                         {
-                            JsonObject o = l.getAsJsonObject();
-                            String ruling = rulingContents.computeIfAbsent(o.get("text").getAsString(), Function.identity());
-                            try
+                            // Rulings
+                            var rulings = new TreeMap<Date, List<String>>();
+                            if (card.has("rulings"))
                             {
-                                Date temp = format.parse(o.get("date").getAsString()); // Have to do this to catch the exception
-                                Date date = rulingDates.computeIfAbsent(o.get("date").getAsString(), (k) -> temp);
-                                if (!rulings.containsKey(date))
-                                    rulings.put(date, new ArrayList<>());
-                                rulings.get(date).add(ruling);
+                                for (JsonElement l : card.get("rulings").getAsJsonArray())
+                                {
+                                    JsonObject o = l.getAsJsonObject();
+                                    String ruling = Interner.STRINGS.intern(o.get("text").getAsString());
+                                    try
+                                    {
+                                        Date temp = format.parse(o.get("date").getAsString()); // Have to do this to catch the exception
+                                        Date date = rulingDates.computeIfAbsent(o.get("date").getAsString(), (k) -> temp);
+                                        if (!rulings.containsKey(date))
+                                            rulings.put(date, new ArrayList<>());
+                                        rulings.get(date).add(ruling);
+                                    }
+                                    catch (ParseException x)
+                                    {
+                                        loaded.errors.add(name + " (" + set + "): " + x.getMessage());
+                                    }
+                                }
                             }
-                            catch (ParseException x)
+
+                            // Format legality
+                            var legality = new HashMap<String, Legality>();
+                            for (var entry : card.get("legalities").getAsJsonObject().entrySet())
                             {
-                                errors.add(name + " (" + set + "): " + x.getMessage());
+                                String formatName = Interner.STRINGS.intern(entry.getKey());
+                                formats.add(formatName);
+                                legality.put(formatName, Legality.parseLegality(entry.getValue().getAsString()));
                             }
-                        }
-                    }
 
-                    // Format legality
-                    var legality = new HashMap<String, Legality>();
-                    for (var entry : card.get("legalities").getAsJsonObject().entrySet())
-                        legality.put(formats.computeIfAbsent(entry.getKey(), Function.identity()), Legality.parseLegality(entry.getValue().getAsString()));
-
-                    // Formats the card can be commander in
-                    var commandFormats = !card.has("leadershipSkills") ? Collections.<String>emptyList() :
-                        card.get("leadershipSkills").getAsJsonObject().entrySet().stream()
-                            .filter((e) -> e.getValue().getAsBoolean())
-                            .map((e) -> formats.computeIfAbsent(e.getKey(), Function.identity()))
-                            .sorted()
-                            .collect(Collectors.toList());
-
-                    Card c = new SingleCard(
-                        layout,
-                        name,
-                        costs.computeIfAbsent(card.has("manaCost") ? card.get("manaCost").getAsString() : "", ManaCost::parseManaCost),
-                        colorLists.computeIfAbsent(card.get("colors").getAsJsonArray().toString(), (k) -> {
-                            var col = new ArrayList<ManaType>();
-                            for (JsonElement e : card.get("colors").getAsJsonArray())
-                                col.add(ManaType.parseManaType(e.getAsString()));
-                            return Collections.unmodifiableList(col);
-                        }),
-                        colorLists.computeIfAbsent(card.get("colorIdentity").getAsJsonArray().toString(), (k) -> {
-                            var col = new ArrayList<ManaType>();
-                            for (JsonElement e : card.get("colorIdentity").getAsJsonArray())
-                                col.add(ManaType.parseManaType(e.getAsString()));
-                            return Collections.unmodifiableList(col);
-                        }),
-                        supertypeSets.computeIfAbsent(card.get("supertypes").getAsJsonArray().toString(), (k) -> {
-                            var s = new HashSet<String>();
-                            for (JsonElement e : card.get("supertypes").getAsJsonArray())
-                                s.add(allSupertypes.computeIfAbsent(e.getAsString(), Function.identity()));
-                            return s;
-                        }),
-                        typeSets.computeIfAbsent(card.get("types").getAsJsonArray().toString(), (str) -> {
-                            var s = new HashSet<String>();
-                            for (JsonElement e : card.get("types").getAsJsonArray())
-                                s.add(allTypes.computeIfAbsent(e.getAsString(), Function.identity()));
-                            return s;
-                        }),
-                        subtypeSets.computeIfAbsent(card.get("subtypes").getAsJsonArray().toString(), (k) -> {
-                            var s = new HashSet<String>();
-                            for (JsonElement e : card.get("subtypes").getAsJsonArray())
-                                s.add(allSubtypes.computeIfAbsent(e.getAsString(), Function.identity()));
-                            return s;
-                        }),
-                        printedTypes.computeIfAbsent(card.has("originalType") ? card.get("originalType").getAsString() : "", Function.identity()),
-                        Rarity.parseRarity(card.get("rarity").getAsString()),
-                        set,
-                        texts.computeIfAbsent(card.has("text") ? card.get("text").getAsString() : "", Function.identity()),
-                        flavors.computeIfAbsent(card.has("flavorText") ? card.get("flavorText").getAsString() : "", Function.identity()),
-                        texts.computeIfAbsent(card.has("originalText") ? card.get("originalText").getAsString() : "", Function.identity()),
-                        artists.computeIfAbsent(card.has("artist") ? card.get("artist").getAsString() : "", Function.identity()),
-                        multiverseid,
-                        scryfallid,
-                        numbers.computeIfAbsent(card.get("number").getAsString(), Function.identity()),
-                        stats.computeIfAbsent(card.has("power") ? card.get("power").getAsString() : "", CombatStat::new),
-                        stats.computeIfAbsent(card.has("toughness") ? card.get("toughness").getAsString() : "", CombatStat::new),
-                        loyalties.computeIfAbsent(card.has("loyalty") ? card.get("loyalty").isJsonNull() ? "X" : card.get("loyalty").getAsString() : "", Loyalty::new),
-                        rulings,
-                        legality,
-                        commandFormats
-                    );
-
-                    // Collect unexpected card values
-                    if (c.artist().stream().anyMatch(String::isEmpty))
-                        errors.add(c.unifiedName() + " (" + c.expansion() + "): Missing artist!");
-
-                    // Add to map of faces if the card has multiple faces
-                    if (layout.isMultiFaced)
-                    {
-                        if (version.compareTo(VER_5_0_0) < 0)
-                        {
-                            var names = new ArrayList<String>();
-                            for (JsonElement e : card.get("names").getAsJsonArray())
-                                names.add(e.getAsString());
-                            faces.put(c, names);
+                            // Formats the card can be commander in
+                            var commandFormats = !card.has("leadershipSkills") ? Collections.<String>emptyList() :
+                                card.get("leadershipSkills").getAsJsonObject().entrySet().stream()
+                                    .filter((e) -> e.getValue().getAsBoolean())
+                                    .map((e) -> Interner.STRINGS.intern(e.getKey()))
+                                    .peek(formats::add)
+                                    .sorted()
+                                    .collect(Collectors.toList());
+
+                            c = new SingleCard(
+                                layout,
+                                name,
+                                costs.computeIfAbsent(card.has("manaCost") ? card.get("manaCost").getAsString() : "", ManaCost::parseManaCost),
+                                colorLists.computeIfAbsent(card.get("colors").getAsJsonArray().toString(), (k) -> {
+                                    var col = new ArrayList<ManaType>();
+                                    for (JsonElement e : card.get("colors").getAsJsonArray())
+                                        col.add(ManaType.parseManaType(e.getAsString()));
+                                    return Collections.unmodifiableList(col);
+                                }),
+                                colorLists.computeIfAbsent(card.get("colorIdentity").getAsJsonArray().toString(), (k) -> {
+                                    var col = new ArrayList<ManaType>();
+                                    for (JsonElement e : card.get("colorIdentity").getAsJsonArray())
+                                        col.add(ManaType.parseManaType(e.getAsString()));
+                                    return Collections.unmodifiableList(col);
+                                }),
+                                supertypeSets.computeIfAbsent(card.get("supertypes").getAsJsonArray().toString(), (k) -> {
+                                    var s = new HashSet<String>();
+                                    for (JsonElement e : card.get("supertypes").getAsJsonArray())
+                                    {
+                                        String t = Interner.STRINGS.intern(e.getAsString());
+                                        allSupertypes.add(t);
+                                        s.add(t);
+                                    }
+                                    return s;
+                                }),
+                                typeSets.computeIfAbsent(card.get("types").getAsJsonArray().toString(), (str) -> {
+                                    var s = new HashSet<String>();
+                                    for (JsonElement e : card.get("types").getAsJsonArray())
+                                    {
+                                        String t = Interner.STRINGS.intern(e.getAsString());
+                                        allTypes.add(t);
+                                        s.add(t);
+                                    }
+                                    return s;
+                                }),
+                                subtypeSets.computeIfAbsent(card.get("subtypes").getAsJsonArray().toString(), (k) -> {
+                                    var s = new HashSet<String>();
+                                    for (JsonElement e : card.get("subtypes").getAsJsonArray())
+                                    {
+                                        String t = Interner.STRINGS.intern(e.getAsString());
+                                        allSubtypes.add(t);
+                                        s.add(t);
+                                    }
+                                    return s;
+                                }),
+                                Interner.STRINGS.intern(card.has("originalType") ? card.get("originalType").getAsString() : ""),
+                                Rarity.parseRarity(card.get("rarity").getAsString()),
+                                set,
+                                Interner.STRINGS.intern(card.has("text") ? card.get("text").getAsString() : ""),
+                                Interner.STRINGS.intern(card.has("flavorText") ? card.get("flavorText").getAsString() : ""),
+                                Interner.STRINGS.intern(card.has("originalText") ? card.get("originalText").getAsString() : ""),
+                                Interner.STRINGS.intern(card.has("artist") ? card.get("artist").getAsString() : ""),
+                                multiverseid,
+                                scryfallid,
+                                Interner.STRINGS.intern(card.get("number").getAsString()),
+                                stats.computeIfAbsent(card.has("power") ? card.get("power").getAsString() : "", CombatStat::new),
+                                stats.computeIfAbsent(card.has("toughness") ? card.get("toughness").getAsString() : "", CombatStat::new),
+                                loyalties.computeIfAbsent(card.has("loyalty") ? card.get("loyalty").isJsonNull() ? "X" : card.get("loyalty").getAsString() : "", Loyalty::new),
+                                rulings,
+                                legality,
+                                commandFormats
+                            );
                         }
-                        else
+
+                        // Collect unexpected card values
+                        if (c.artist().stream().anyMatch(String::isEmpty))
+                            loaded.errors.add(c.unifiedName() + " (" + c.expansion() + "): Missing artist!");
+
+                        // Add to map of faces if the card has multiple faces
+                        if (layout.isMultiFaced)
                         {
-                            multiUUIDs.put(card.get("uuid").getAsString(), c);
-                            facesNames.put(c, Arrays.asList(card.get("name").getAsString().split(Card.FACE_SEPARATOR)));
-                            otherFaceIds.put(c, new ArrayList<>());
-                            for (JsonElement id : card.get("otherFaceIds").getAsJsonArray())
-                                otherFaceIds.get(c).add(id.getAsString());
+                            if (setVersion.compareTo(VER_5_0_0) < 0)
+                            {
+                                var names = new ArrayList<String>();
+                                for (JsonElement e : card.get("names").getAsJsonArray())
+                                    names.add(e.getAsString());
+                                faces.put(c, names);
+                            }
+                            else
+                            {
+                                multiUUIDs.put(card.get("uuid").getAsString(), c);
+                                facesNames.put(c, Arrays.asList(card.get("name").getAsString().split(Card.FACE_SEPARATOR)));
+                                otherFaceIds.put(c, new ArrayList<>());
+                                for (JsonElement id : card.get("otherFaceIds").getAsJsonArray())
+                                    otherFaceIds.get(c).add(id.getAsString());
+                            }
                         }
-                    }
 
-                    cards.add(c);
-                    setProgress(cards.size()*100/numCards);
-                }
+                        loaded.cards.add(c);
+                    }
+                    return loaded;
+                };
+                if (pool == null)
+                    task.get().addTo(cards, errors);
+                else
+                    pending.add(CompletableFuture.supplyAsync(task, pool));
             }
+            reader.endObject();
 
+            // Faces are removed from the list of cards all at once at the end, rather than one
+            // group at a time, so this takes time proportional to the number of cards
             publish("Processing multi-faced cards...");
+            var removed = new HashSet<Card>();
+            var multiCards = new ArrayList<Card>();
             if (version.compareTo(VER_5_0_0) <= 0)
             {
                 var facesList = new ArrayList<>(faces.keySet());
-                while (!facesList.isEmpty())
+                var facesByName = new HashMap<Expansion, Map<String, List<Card>>>();
+                for (Card face : facesList)
+                    facesByName.computeIfAbsent(face.expansion(), (e) -> new HashMap<>()).computeIfAbsent(face.unifiedName(), (n) -> new ArrayList<>()).add(face);
+
+                var assigned = Collections.newSetFromMap(new IdentityHashMap<Card, Boolean>());
+                for (Card face : facesList)
                 {
-                    Card face = facesList.remove(0);
+                    if (!assigned.add(face))
+                        continue;
                     var otherFaces = new ArrayList<Card>();
                     if (version.compareTo(VER_5_0_0) < 0 || face.layout() != CardLayout.MELD)
                     {
+                        // Faces are ordered by where their names are in the list, and the
+                        // original face comes last among faces with the same name
                         var faceNames = faces.get(face);
-                        for (Card c : facesList)
-                            if (faceNames.contains(c.unifiedName()) && c.expansion().equals(face.expansion()))
-                                otherFaces.add(c);
-                        facesList.removeAll(otherFaces);
-                        otherFaces.add(face);
-                        otherFaces.sort(Comparator.comparingInt((a) -> faceNames.indexOf(a.unifiedName())));
+                        var expansionFaces = facesByName.get(face.expansion());
+                        if (!faceNames.contains(face.unifiedName()))
+                            otherFaces.add(face);
+                        for (String name : new LinkedHashSet<>(faceNames))
+                        {
+                            for (Card c : expansionFaces.getOrDefault(name, Collections.emptyList()))
+                                if (c != face && assigned.add(c))
+                                    otherFaces.add(c);
+                            if (name.equals(face.unifiedName()))
+                                otherFaces.add(face);
+                        }
                     }
-                    cards.removeAll(otherFaces);
+                    removed.addAll(otherFaces);
 
                     if (face.layout() == CardLayout.MELD)
                         Collections.swap(otherFaces, 1, 2);
-                    cards.addAll(createMultiFacedCard(face.layout(), otherFaces));
+                    multiCards.addAll(createMultiFacedCard(face.layout(), otherFaces));
                 }
             }
             else
             {
-                cards.removeAll(facesNames.keySet());
+                removed.addAll(facesNames.keySet());
                 for (var e : facesNames.entrySet())
                 {
                     Card face = e.getKey();
@@ -660,9 +1178,11 @@ public class InventoryLoader extends SwingWorker<Inventory, String>
                     cardFaces.sort(Comparator.comparingInt(c -> e.getValue().indexOf(c.unifiedName())));
 
                     if (face.layout() != CardLayout.MELD || cardFaces.size() == 3)
-                        cards.addAll(createMultiFacedCard(face.layout(), cardFaces));
+                        multiCards.addAll(createMultiFacedCard(face.layout(), cardFaces));
                 }
             }
+            cards.removeIf(removed::contains);
+            cards.addAll(multiCards);
 
             publish("Removing duplicate entries...");
             var unique = new HashMap<String, Card>();
@@ -674,25 +1194,160 @@ public class InventoryLoader extends SwingWorker<Inventory, String>
             // Store the lists of expansion and block names and types and sort them alphabetically
             Expansion.expansions = expansions.stream().sorted().toArray(Expansion[]::new);
             Expansion.blocks = blockNames.stream().sorted().toArray(String[]::new);
-            SupertypeFilter.supertypeList = allSupertypes.values().stream().sorted().toArray(String[]::new);
-            CardTypeFilter.typeList = allTypes.values().stream().sorted().toArray(String[]::new);
-            SubtypeFilter.subtypeList = allSubtypes.values().stream().sorted().toArray(String[]::new);
+            SupertypeFilter.supertypeList = allSupertypes.stream().sorted().toArray(String[]::new);
+            CardTypeFilter.typeList = allTypes.stream().sorted().toArray(String[]::new);
+            SubtypeFilter.subtypeList = allSubtypes.stream().sorted().toArray(String[]::new);
 
-            var missingFormats = formats.values().stream().filter((f) -> !FormatConstraints.FORMAT_NAMES.contains(f)).sorted().collect(Collectors.toList());
+            var missingFormats = formats.stream().filter((f) -> !FormatConstraints.FORMAT_NAMES.contains(f)).sorted().collect(Collectors.toList());
             if (!missingFormats.isEmpty())
                 errors.add("Could not find definitions for the following formats: " + missingFormats.stream().collect(Collectors.joining(", ")));
         }
+        finally
+        {
+            if (pool != null)
+                pool.shutdownNow();
+        }
+
+        return cards;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Load the inventory from its snapshot if there is an up-to-date one, or otherwise from the
+     * JSON inventory file, in which case a new snapshot is written for the next time it's loaded.
+     * If an inventory is being replaced, keep the cards from it that haven't changed.  If card
+     * details are kept on disk, move them there.  Then load card tags.  If the inventory file
+     * only exists in its {@link #otherForm(File) other form}, because whether or not it's kept
+     * compressed changed, it's converted first, and the other form is deleted once loading
+     * is done.
+     *
+     * @return The inventory of cards that can be added to a deck.
+     */
+    @Override
+    protected Inventory doInBackground() throws Exception
+    {
+        // Whatever is loaded replaces the strings shared by the last inventory
+        Interner.STRINGS.reset();
+
+        // If whether or not the inventory is kept compressed changed, convert the existing one
+        File other = otherForm(file);
+        if (!file.exists() && other.exists())
+        {
+            convert(other);
+            if (isCancelled())
+                return new Inventory();
+        }
+
+        File snapshot = InventorySnapshot.snapshotFile(file);
+
+        // If the inventory hasn't changed since it was last downloaded, just load it from disk
+        HttpDownload download = null;
+        Optional<URLConnection> connection = Optional.empty();
+        if (site != null)
+        {
+            publish("Connecting to " + site.getHost() + "...");
+            // Continue an earlier download that didn't finish if there is one
+            File partial = partialFile(file);
+            if (partial.exists())
+            {
+                download = new HttpDownload(site, partial);
+                connection = download.connect(partial.length(), false);
+                // Only continue if the server sends exactly what hasn't been downloaded yet
+                long offset = connection.map(download::offset).orElse(0L);
+                if (offset > 0 && offset != partial.length())
+                {
+                    if (connection.get() instanceof HttpURLConnection)
+                        ((HttpURLConnection)connection.get()).disconnect();
+                    partial.delete();
+                    HttpDownload.delete(partial);
+                    connection = download.connect(0, false);
+                }
+            }
+            else
+            {
+                download = new HttpDownload(site, file);
+                connection = download.connect(0, file.exists());
+            }
+            if (connection.isEmpty())
+                publish(file.getName() + " has not changed since it was last downloaded.");
+        }
+
+        Optional<List<Card>> cached = Optional.empty();
+        if (connection.isEmpty())
+        {
+            publish("Reading cached inventory...");
+            setProgress(0);
+            cached = InventorySnapshot.read(snapshot, file, inventoryVersion, errors, records, this::setProgress);
+        }
+        List<Card> cards;
+        if (cached.isPresent())
+            cards = cached.get();
+        else
+        {
+            cards = connection.isPresent() ? downloadCards(download, connection.get()) : readCards();
+            if (isCancelled())
+                return new Inventory();
+
+            publish("Caching inventory...");
+            try
+            {
+                InventorySnapshot.write(snapshot, file, inventoryVersion, cards, records, errors);
+            }
+            catch (IOException e)
+            {
+                System.err.println("warning: could not write inventory snapshot: " + e.getMessage());
+            }
+        }
 
-        Inventory inventory = new Inventory(cards);
+        if (previous != null && previous.iterator().hasNext())
+        {
+            publish("Comparing with the current inventory...");
+            update = InventoryUpdate.compare(previous, cards, records);
+            cards = update.cards();
+            publish("Inventory updated: " + update + ".");
+        }
+
+        if (SettingsDialog.settings().inventory.columnar)
+        {
+            publish("Compacting cards...");
+            cards = CardStore.compact(cards);
+        }
+
+        DetailsFile details = null;
+        if (SettingsDialog.settings().inventory.detailsOnDisk)
+        {
+            publish("Moving card details to disk...");
+            try
+            {
+                details = DetailsFile.store(cards);
+            }
+            catch (IOException e)
+            {
+                System.err.println("warning: could not move card details to disk: " + e.getMessage());
+            }
+        }
+
+        Inventory inventory = new Inventory(cards, records, details);
 
         if (Files.exists(Path.of(SettingsDialog.settings().inventory.tags)))
         {
             @SuppressWarnings("unchecked")
             var rawTags = (Map<String, Set<String>>)MainFrame.SERIALIZER.fromJson(String.join("\n", Files.readAllLines(Path.of(SettingsDialog.settings().inventory.tags))), new TypeToken<Map<String, Set<String>>>() {}.getType());
             Card.tags.clear();
-            Card.tags.putAll(rawTags.entrySet().stream().collect(Collectors.toMap((e) -> inventory.find(e.getKey()), Map.Entry::getValue)));
+            Card.tags.putAll(rawTags.entrySet().stream().collect(Collectors.toMap((e) -> inventory.find(e.getKey()), (e) -> e.getValue().stream().map(Interner.STRINGS::intern).collect(Collectors.toSet()))));
+        }
+
+        // Now that the inventory has loaded from the current form, the other one isn't needed
+        if (other.exists() || partialFile(other).exists())
+        {
+            other.delete();
+            InventorySnapshot.snapshotFile(other).delete();
+            HttpDownload.delete(other);
+            partialFile(other).delete();
+            HttpDownload.delete(partialFile(other));
         }
 
+        publish(String.format("Card strings: %d shared values, saving about %.1f MB in this load.", Interner.STRINGS.size(), Interner.STRINGS.saved()/1048576.0));
         return inventory;
     }
 
@@ -0,0 +1,765 @@
+package editor.gui.inventory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import editor.database.attributes.CombatStat;
+import editor.database.attributes.Expansion;
+import editor.database.attributes.Legality;
+import editor.database.attributes.Loyalty;
+import editor.database.attributes.ManaCost;
+import editor.database.attributes.ManaType;
+import editor.database.attributes.Rarity;
+import editor.database.card.Card;
+import editor.database.card.CardLayout;
+import editor.database.card.CardStore;
+import editor.database.card.FlipCard;
+import editor.database.card.MeldCard;
+import editor.database.card.ModalCard;
+import editor.database.card.MultiCard;
+import editor.database.card.SingleCard;
+import editor.database.card.SplitCard;
+import editor.database.card.TransformCard;
+import editor.database.version.DatabaseVersion;
+import editor.filter.leaf.options.multi.CardTypeFilter;
+import editor.filter.leaf.options.multi.SubtypeFilter;
+import editor.filter.leaf.options.multi.SupertypeFilter;
+import editor.util.Interner;
+
+/**
+ * Binary cache of a loaded inventory.  After the inventory is loaded from its JSON file,
+ * its cards, expansions, blocks, and type lists, and the hashes of the JSON records the
+ * cards came from, are written to a snapshot so the next time it's loaded they can be
+ * read back without parsing the JSON again.  A snapshot is
+ * only used if it was created from the same inventory file (size and modification time),
+ * the same inventory version, and the same version of the loader and card classes;
+ * otherwise it is ignored and the inventory should be loaded from JSON.
+ *
+ * @author Alec Roelke
+ */
+public abstract class InventorySnapshot
+{
+    /** Number identifying a file as an inventory snapshot. */
+    private static final int MAGIC = 0x4D545753;
+    /**
+     * Version of the snapshot format.  Snapshots are also invalidated when the loader
+     * classes change, but this should be incremented if the format changes anyway.
+     * Format 2 dropped the checksum of the inventory file from the key and wrote strings as
+     * length-prefixed UTF-8, and format 3 added the hashes of the JSON records.
+     */
+    private static final int FORMAT = 3;
+    /** Extension added to the inventory file name to get its snapshot's file name. */
+    public static final String EXTENSION = ".snapshot";
+    /** Size of the buffer to use when reading and writing snapshots and computing checksums. */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Marker for a single-faced card in the card table. */
+    private static final byte SINGLE = 0;
+    /** Marker for a multi-faced card in the card table. */
+    private static final byte MULTI = 1;
+
+    /**
+     * Write a string as UTF-8 preceded by its length in bytes.  Unlike
+     * {@link DataOutput#writeUTF(String)}, this can write strings longer than 64 KB.
+     *
+     * @param out stream to write to
+     * @param s string to write
+     * @throws IOException if the string can't be written
+     * @see #readText(DataInput)
+     */
+    static void writeText(DataOutput out, String s) throws IOException
+    {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string written by {@link #writeText(DataOutput, String)}.
+     *
+     * @param in stream to read from
+     * @return The string that was read.
+     * @throws IOException if the string can't be read
+     */
+    static String readText(DataInput in) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Helper for writing the contents of a snapshot.  Each distinct string is written only
+     * once; later occurrences are written as references to the first one.
+     *
+     * @author Alec Roelke
+     */
+    private static class Writer
+    {
+        /** Stream to write to. */
+        private final DataOutputStream out;
+        /** Strings that have been written and their indices. */
+        private final Map<String, Integer> strings;
+        /** Expansions that have been written and their indices. */
+        private final Map<Expansion, Integer> expansions;
+
+        /**
+         * Create a new Writer.
+         *
+         * @param o stream to write to
+         */
+        public Writer(DataOutputStream o)
+        {
+            out = o;
+            strings = new HashMap<>();
+            expansions = new HashMap<>();
+        }
+
+        /**
+         * Write a string, or a reference to it if it has already been written.
+         *
+         * @param s string to write
+         * @throws IOException if the string can't be written
+         */
+        public void writeString(String s) throws IOException
+        {
+            Integer index = strings.get(s);
+            if (index == null)
+            {
+                strings.put(s, strings.size());
+                out.writeInt(-1);
+                writeText(out, s);
+            }
+            else
+                out.writeInt(index);
+        }
+
+        /**
+         * Write a collection of strings preceded by its size.
+         *
+         * @param c strings to write
+         * @throws IOException if the strings can't be written
+         */
+        public void writeStrings(Collection<String> c) throws IOException
+        {
+            out.writeInt(c.size());
+            for (String s : c)
+                writeString(s);
+        }
+
+        /**
+         * Write an array of strings preceded by its length.
+         *
+         * @param a strings to write
+         * @throws IOException if the strings can't be written
+         */
+        public void writeStrings(String[] a) throws IOException
+        {
+            writeStrings(List.of(a));
+        }
+
+        /**
+         * Write a list of colors preceded by its size.
+         *
+         * @param colors colors to write
+         * @throws IOException if the colors can't be written
+         */
+        public void writeColors(List<ManaType> colors) throws IOException
+        {
+            out.writeByte(colors.size());
+            for (ManaType color : colors)
+                out.writeByte(color.ordinal());
+        }
+
+        /**
+         * Write an expansion and remember its index so cards can refer to it.
+         *
+         * @param expansion expansion to write
+         * @throws IOException if the expansion can't be written
+         */
+        public void writeExpansion(Expansion expansion) throws IOException
+        {
+            expansions.put(expansion, expansions.size());
+            writeString(expansion.name);
+            writeString(expansion.block);
+            writeString(expansion.code);
+            out.writeInt(expansion.count);
+            out.writeLong(expansion.releaseDate.toEpochDay());
+        }
+
+        /**
+         * Write a single-faced card.  Its expansion must already have been written.
+         *
+         * @param face card to write
+         * @throws IOException if the card can't be written
+         */
+        public void writeFace(Card face) throws IOException
+        {
+            Integer expansion = expansions.get(face.expansion());
+            if (expansion == null)
+                throw new IllegalStateException("unknown expansion " + face.expansion() + " for " + face.unifiedName());
+
+            out.writeByte(face.layout().ordinal());
+            writeString(face.name().get(0));
+            writeString(face.manaCost().get(0).toString());
+            writeColors(face.colors());
+            writeColors(face.colorIdentity());
+            writeStrings(face.supertypes());
+            writeStrings(face.types());
+            writeStrings(face.subtypes());
+            writeString(face.printedTypes().get(0));
+            out.writeByte(face.rarity().ordinal());
+            out.writeInt(expansion);
+            writeString(face.oracleText().get(0));
+            writeString(face.flavorText().get(0));
+            writeString(face.printedText().get(0));
+            writeString(face.artist().get(0));
+            out.writeInt(face.multiverseid().get(0));
+            writeString(face.scryfallid().get(0));
+            writeString(face.number().get(0));
+            writeString(face.power().get(0).toString());
+            writeString(face.toughness().get(0).toString());
+            writeString(face.loyalty().get(0).toString());
+            out.writeInt(face.rulings().size());
+            for (var ruling : face.rulings().entrySet())
+            {
+                out.writeLong(ruling.getKey().getTime());
+                writeStrings(ruling.getValue());
+            }
+            out.writeInt(face.legality().size());
+            for (var legality : face.legality().entrySet())
+            {
+                writeString(legality.getKey());
+                out.writeByte(legality.getValue().ordinal());
+            }
+            writeStrings(face.commandFormats());
+        }
+    }
+
+    /**
+     * Helper for reading the contents of a snapshot written by {@link Writer}.  Values that
+     * are shared among many cards are only created once, as they are when loading from JSON.
+     *
+     * @author Alec Roelke
+     */
+    private static class Reader
+    {
+        /** Stream to read from. */
+        private final DataInputStream in;
+        /** Strings that have been read, in order. */
+        private final List<String> strings;
+        /** Number of times each string that has been read was referred to again. */
+        private int[] references;
+        /** Mana costs that have been created. */
+        private final Map<String, ManaCost> costs;
+        /** Color lists that have been created. */
+        private final Map<List<ManaType>, List<ManaType>> colorLists;
+        /** Type sets that have been created. */
+        private final Map<List<String>, Set<String>> typeSets;
+        /** Power and toughness values that have been created. */
+        private final Map<String, CombatStat> stats;
+        /** Loyalty values that have been created. */
+        private final Map<String, Loyalty> loyalties;
+        /** Ruling dates that have been created. */
+        private final Map<Long, Date> dates;
+
+        /**
+         * Create a new Reader.
+         *
+         * @param i stream to read from
+         */
+        public Reader(DataInputStream i)
+        {
+            in = i;
+            strings = new ArrayList<>();
+            references = new int[1024];
+            costs = new HashMap<>();
+            colorLists = new HashMap<>();
+            typeSets = new HashMap<>();
+            stats = new HashMap<>();
+            loyalties = new HashMap<>();
+            dates = new HashMap<>();
+        }
+
+        /**
+         * Read a string or a reference to one that has already been read.
+         *
+         * @return the string that was read.
+         * @throws IOException if the string can't be read
+         */
+        public String readString() throws IOException
+        {
+            int index = in.readInt();
+            if (index < 0)
+            {
+                String s = Interner.STRINGS.intern(readText(in));
+                if (strings.size() == references.length)
+                    references = Arrays.copyOf(references, references.length*2);
+                strings.add(s);
+                return s;
+            }
+            else
+            {
+                references[index]++;
+                return strings.get(index);
+            }
+        }
+
+        /**
+         * Tell the string pool about every reference to a string that was read, since each
+         * would have been a separate copy if the strings weren't shared.
+         */
+        public void countSharedStrings()
+        {
+            for (int i = 0; i < strings.size(); i++)
+                if (references[i] > 0)
+                    Interner.STRINGS.shared(strings.get(i), references[i]);
+        }
+
+        /**
+         * Read a list of strings preceded by its size.
+         *
+         * @return the list of strings that was read.
+         * @throws IOException if the strings can't be read
+         */
+        public List<String> readStringList() throws IOException
+        {
+            int n = in.readInt();
+            var list = new ArrayList<String>(n);
+            for (int i = 0; i < n; i++)
+                list.add(readString());
+            return list;
+        }
+
+        /**
+         * Read an array of strings preceded by its length.
+         *
+         * @return the array of strings that was read.
+         * @throws IOException if the strings can't be read
+         */
+        public String[] readStrings() throws IOException
+        {
+            return readStringList().toArray(String[]::new);
+        }
+
+        /**
+         * Read a set of types, reusing an existing set if one with the same contents has
+         * already been read.
+         *
+         * @return the set of types that was read.
+         * @throws IOException if the types can't be read
+         */
+        public Set<String> readTypes() throws IOException
+        {
+            return typeSets.computeIfAbsent(readStringList(), HashSet::new);
+        }
+
+        /**
+         * Read a list of colors, reusing an existing list if one with the same contents has
+         * already been read.
+         *
+         * @return the list of colors that was read.
+         * @throws IOException if the colors can't be read
+         */
+        public List<ManaType> readColors() throws IOException
+        {
+            int n = in.readByte();
+            var colors = new ArrayList<ManaType>(n);
+            for (int i = 0; i < n; i++)
+                colors.add(ManaType.values()[in.readByte()]);
+            return colorLists.computeIfAbsent(colors, Collections::unmodifiableList);
+        }
+
+        /**
+         * Read an expansion.
+         *
+         * @return the expansion that was read.
+         * @throws IOException if the expansion can't be read
+         */
+        public Expansion readExpansion() throws IOException
+        {
+            return new Expansion(readString(), readString(), readString(), in.readInt(), LocalDate.ofEpochDay(in.readLong()));
+        }
+
+        /**
+         * Read a single-faced card.
+         *
+         * @param expansions expansions that have been read, which the card refers to by index
+         * @return the card that was read.
+         * @throws IOException if the card can't be read
+         */
+        public Card readFace(Expansion[] expansions) throws IOException
+        {
+            CardLayout layout = CardLayout.values()[in.readByte()];
+            String name = readString();
+            ManaCost mana = costs.computeIfAbsent(readString(), ManaCost::parseManaCost);
+            List<ManaType> colors = readColors();
+            List<ManaType> colorIdentity = readColors();
+            Set<String> supertypes = readTypes();
+            Set<String> types = readTypes();
+            Set<String> subtypes = readTypes();
+            String printedTypes = readString();
+            Rarity rarity = Rarity.values()[in.readByte()];
+            Expansion expansion = expansions[in.readInt()];
+            String text = readString();
+            String flavor = readString();
+            String printed = readString();
+            String artist = readString();
+            int multiverseid = in.readInt();
+            String scryfallid = readString();
+            String number = readString();
+            CombatStat power = stats.computeIfAbsent(readString(), CombatStat::new);
+            CombatStat toughness = stats.computeIfAbsent(readString(), CombatStat::new);
+            Loyalty loyalty = loyalties.computeIfAbsent(readString(), Loyalty::new);
+            var rulings = new TreeMap<Date, List<String>>();
+            int n = in.readInt();
+            for (int i = 0; i < n; i++)
+            {
+                long date = in.readLong();
+                rulings.put(dates.computeIfAbsent(date, Date::new), readStringList());
+            }
+            var legality = new HashMap<String, Legality>();
+            n = in.readInt();
+            for (int i = 0; i < n; i++)
+                legality.put(readString(), Legality.values()[in.readByte()]);
+            List<String> commandFormats = readStringList();
+
+            return new SingleCard(
+                layout,
+                name,
+                mana,
+                colors,
+                colorIdentity,
+                supertypes,
+                types,
+                subtypes,
+                printedTypes,
+                rarity,
+                expansion,
+                text,
+                flavor,
+                printed,
+                artist,
+                multiverseid,
+                scryfallid,
+                number,
+                power,
+                toughness,
+                loyalty,
+                rulings,
+                legality,
+                commandFormats
+            );
+        }
+    }
+
+    /**
+     * Get the snapshot file corresponding to an inventory file.
+     *
+     * @param inventory inventory file
+     * @return the file the inventory's snapshot is stored in.
+     */
+    public static File snapshotFile(File inventory)
+    {
+        return new File(inventory.getPath() + EXTENSION);
+    }
+
+    /**
+     * Compute a CRC-32 checksum of a stream's contents.  The stream is closed afterward.
+     *
+     * @param in stream to compute the checksum of
+     * @return the checksum of the data in the stream.
+     * @throws IOException if the stream can't be read
+     */
+    private static long checksum(InputStream in) throws IOException
+    {
+        CRC32 crc = new CRC32();
+        try (in)
+        {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) > 0)
+                crc.update(buffer, 0, n);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Compute a checksum of the classes that create the inventory and the cards in it, so
+     * that a snapshot can be invalidated when they change.  This includes every card class
+     * the snapshot reader creates and the attributes it parses from strings.
+     *
+     * @return a checksum of the inventory loader, snapshot, card, and attribute classes.
+     * @throws IOException if the classes can't be read
+     */
+    private static long loaderChecksum() throws IOException
+    {
+        long sum = 0;
+        for (Class<?> c : List.of(InventoryLoader.class, InventorySnapshot.class,
+                                  Card.class, SingleCard.class, MultiCard.class, SplitCard.class, FlipCard.class, TransformCard.class, ModalCard.class, MeldCard.class, CardStore.class,
+                                  Expansion.class, ManaCost.class, CombatStat.class, Loyalty.class))
+            sum = 31*sum + classChecksum(c, c.getSimpleName());
+        // AbstractCard and StoredCard aren't visible outside their package, so find them next to Card
+        for (String name : List.of("AbstractCard", "StoredCard"))
+            sum = 31*sum + classChecksum(Card.class, name);
+        return sum;
+    }
+
+    /**
+     * Compute a checksum of a class file.
+     *
+     * @param neighbor class in the same package as the class
+     * @param name simple name of the class
+     * @return a checksum of the class file.
+     * @throws IOException if the class file can't be found or read
+     */
+    private static long classChecksum(Class<?> neighbor, String name) throws IOException
+    {
+        InputStream in = neighbor.getResourceAsStream(name + ".class");
+        if (in == null)
+            throw new IOException("can't find class file for " + neighbor.getPackageName() + '.' + name);
+        return checksum(in);
+    }
+
+    /**
+     * Write the key identifying the inventory file and the loader that created a snapshot.
+     * The inventory file is only identified by its size and modification time, not by its
+     * contents, so checking the key doesn't mean reading the whole file.  A file that is
+     * rewritten with different contents but the same size and modification time would
+     * match a stale snapshot; since inventory files are only replaced by downloads, which
+     * change the modification time, that is accepted.
+     *
+     * @param out stream to write to
+     * @param source inventory file
+     * @param version version of the inventory
+     * @throws IOException if the key can't be written
+     */
+    private static void writeKey(DataOutputStream out, File source, DatabaseVersion version) throws IOException
+    {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeLong(loaderChecksum());
+        out.writeUTF(version.toString());
+        out.writeLong(source.length());
+        out.writeLong(source.lastModified());
+    }
+
+    /**
+     * Check that a snapshot's key matches an inventory file and the current loader.
+     *
+     * @param in stream to read from
+     * @param source inventory file
+     * @param version expected version of the inventory
+     * @return <code>true</code> if the snapshot was created by this loader from the given
+     * inventory, and <code>false</code> otherwise.
+     * @throws IOException if the key can't be read
+     */
+    private static boolean readKey(DataInputStream in, File source, DatabaseVersion version) throws IOException
+    {
+        return in.readInt() == MAGIC &&
+               in.readInt() == FORMAT &&
+               in.readLong() == loaderChecksum() &&
+               in.readUTF().equals(version.toString()) &&
+               in.readLong() == source.length() &&
+               in.readLong() == source.lastModified();
+    }
+
+    /**
+     * Write a snapshot of a loaded inventory.  The snapshot is written to a temporary
+     * file first so an interrupted write doesn't leave a corrupt snapshot behind.
+     *
+     * @param snapshot file to write the snapshot to
+     * @param source inventory file the cards were loaded from
+     * @param version version of the inventory
+     * @param cards cards that were loaded
+     * @param records hashes of the JSON records the cards were loaded from, by Scryfall ID
+     * @param warnings warnings that occurred while loading the cards
+     * @throws IOException if the snapshot can't be written
+     */
+    public static void write(File snapshot, File source, DatabaseVersion version, Collection<? extends Card> cards, Map<String, Long> records, List<String> warnings) throws IOException
+    {
+        File tmp = new File(snapshot.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), BUFFER_SIZE)))
+        {
+            writeKey(out, source, version);
+            Writer writer = new Writer(out);
+
+            writer.writeStrings(Expansion.blocks);
+            writer.writeStrings(SupertypeFilter.supertypeList);
+            writer.writeStrings(CardTypeFilter.typeList);
+            writer.writeStrings(SubtypeFilter.subtypeList);
+            writer.writeStrings(warnings.toArray(String[]::new));
+
+            out.writeInt(Expansion.expansions.length);
+            for (Expansion expansion : Expansion.expansions)
+                writer.writeExpansion(expansion);
+
+            var faces = new IdentityHashMap<Card, Integer>();
+            for (Card card : cards)
+            {
+                if (card instanceof MultiCard)
+                {
+                    for (Card face : ((MultiCard)card).faceCards())
+                        faces.putIfAbsent(face, faces.size());
+                    if (card instanceof MeldCard)
+                        faces.putIfAbsent(((MeldCard)card).sibling(), faces.size());
+                }
+                else
+                    faces.putIfAbsent(card, faces.size());
+            }
+            var faceList = new Card[faces.size()];
+            for (var e : faces.entrySet())
+                faceList[e.getValue()] = e.getKey();
+            out.writeInt(faceList.length);
+            for (Card face : faceList)
+                writer.writeFace(face);
+
+            out.writeInt(cards.size());
+            for (Card card : cards)
+            {
+                if (card instanceof MultiCard)
+                {
+                    var cardFaces = ((MultiCard)card).faceCards();
+                    out.writeByte(MULTI);
+                    out.writeByte(card.layout().ordinal());
+                    out.writeByte(cardFaces.size());
+                    for (Card face : cardFaces)
+                        out.writeInt(faces.get(face));
+                    if (card instanceof MeldCard)
+                        out.writeInt(faces.get(((MeldCard)card).sibling()));
+                }
+                else
+                {
+                    out.writeByte(SINGLE);
+                    out.writeInt(faces.get(card));
+                }
+            }
+
+            out.writeInt(records.size());
+            for (var record : records.entrySet())
+            {
+                writer.writeString(record.getKey());
+                out.writeLong(record.getValue());
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            tmp.delete();
+            throw e;
+        }
+        Files.move(tmp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Read the cards from a snapshot of the inventory, if one exists and it matches the
+     * inventory file and the current loader.  If it does, {@link Expansion#expansions},
+     * {@link Expansion#blocks}, and the type lists are also populated.
+     *
+     * @param snapshot file containing the snapshot
+     * @param source inventory file the snapshot should have been created from
+     * @param version expected version of the inventory
+     * @param warnings list to add the warnings from the original load to
+     * @param records map to add the hashes of the JSON records the cards were loaded from to
+     * @param progress function to call with the percentage of cards that have been read
+     * @return the cards in the snapshot, or an empty value if there is no valid snapshot.
+     */
+    public static Optional<List<Card>> read(File snapshot, File source, DatabaseVersion version, List<String> warnings, Map<String, Long> records, Consumer<Integer> progress)
+    {
+        if (!snapshot.exists() || !source.exists())
+            return Optional.empty();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot), BUFFER_SIZE)))
+        {
+            if (!readKey(in, source, version))
+                return Optional.empty();
+            Reader reader = new Reader(in);
+
+            String[] blocks = reader.readStrings();
+            String[] supertypes = reader.readStrings();
+            String[] types = reader.readStrings();
+            String[] subtypes = reader.readStrings();
+            String[] loadWarnings = reader.readStrings();
+
+            var expansions = new Expansion[in.readInt()];
+            for (int i = 0; i < expansions.length; i++)
+                expansions[i] = reader.readExpansion();
+
+            var faces = new Card[in.readInt()];
+            for (int i = 0; i < faces.length; i++)
+                faces[i] = reader.readFace(expansions);
+
+            int n = in.readInt();
+            var cards = new ArrayList<Card>(n);
+            for (int i = 0; i < n; i++)
+            {
+                if (in.readByte() == SINGLE)
+                    cards.add(faces[in.readInt()]);
+                else
+                {
+                    CardLayout layout = CardLayout.values()[in.readByte()];
+                    int count = in.readByte();
+                    var cardFaces = new ArrayList<Card>(count);
+                    for (int j = 0; j < count; j++)
+                        cardFaces.add(faces[in.readInt()]);
+                    cards.add(switch (layout) {
+                        case SPLIT, AFTERMATH, ADVENTURE -> new SplitCard(cardFaces);
+                        case FLIP      -> new FlipCard(cardFaces.get(0), cardFaces.get(1));
+                        case TRANSFORM -> new TransformCard(cardFaces.get(0), cardFaces.get(1));
+                        case MODAL_DFC -> new ModalCard(cardFaces.get(0), cardFaces.get(1));
+                        case MELD      -> new MeldCard(cardFaces.get(0), faces[in.readInt()], cardFaces.get(1));
+                        default -> throw new IllegalStateException("unexpected multi-faced layout " + layout);
+                    });
+                }
+                if (i % 1000 == 0)
+                    progress.accept(i*100/n);
+            }
+
+            var hashes = new HashMap<String, Long>();
+            int m = in.readInt();
+            for (int i = 0; i < m; i++)
+                hashes.put(reader.readString(), in.readLong());
+
+            reader.countSharedStrings();
+
+            Expansion.expansions = expansions;
+            Expansion.blocks = blocks;
+            SupertypeFilter.supertypeList = supertypes;
+            CardTypeFilter.typeList = types;
+            SubtypeFilter.subtypeList = subtypes;
+            warnings.addAll(List.of(loadWarnings));
+            records.putAll(hashes);
+            return Optional.of(cards);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            System.err.println("warning: could not read inventory snapshot: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package editor.gui.inventory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import editor.collection.Inventory;
+import editor.database.attributes.Expansion;
+import editor.database.card.Card;
+
+/**
+ * Differences between an inventory that is already loaded and a newer version of it,
+ * matched by Scryfall ID.  Cards that haven't changed keep the objects from the old
+ * inventory, so anything that refers to them (like open decks and card tags) is still
+ * valid after the update, and only cards that were added or changed use the new objects.
+ * Whether or not a card changed is decided by comparing hashes of the JSON records it was
+ * loaded from, or by comparing its attributes if the old inventory's hashes aren't known.
+ *
+ * @author Alec Roelke
+ */
+public class InventoryUpdate
+{
+    /**
+     * Compare a newly-loaded list of cards with the inventory it's replacing.
+     *
+     * @param previous inventory that is currently loaded
+     * @param loaded cards that were just loaded, which may include cards from the old
+     * inventory that the loader already knew hadn't changed
+     * @param records hashes of the JSON records the loaded cards came from, by Scryfall ID
+     * @return An InventoryUpdate describing which cards were added, removed, and changed
+     * and containing the cards that should be in the new inventory.
+     */
+    public static InventoryUpdate compare(Inventory previous, Collection<Card> loaded, Map<String, Long> records)
+    {
+        var update = new InventoryUpdate();
+        var old = new HashMap<String, Card>(previous.size());
+        for (Card c : previous)
+            old.put(c.scryfallid().get(0), c);
+        for (Card c : loaded)
+        {
+            String id = c.scryfallid().get(0);
+            Card o = old.remove(id);
+            Long before = previous.records().get(id);
+            if (o == null)
+            {
+                update.added.add(c);
+                update.cards.add(c);
+            }
+            else if (o != c && (before == null ? !unchanged(o, c) : !before.equals(records.get(id))))
+            {
+                update.changed.add(c);
+                update.cards.add(c);
+            }
+            else
+                update.cards.add(o);
+        }
+        update.removed.addAll(old.values());
+        return update;
+    }
+
+    /**
+     * Determine if two lists of attribute values are the same, using a function to convert
+     * the values into something that can be compared if they can't be compared directly.
+     *
+     * @param <T> type of attribute value
+     * @param a first list of values
+     * @param b second list of values
+     * @param key function converting values into objects that can be compared
+     * @return <code>true</code> if both lists have the same values in the same order, and
+     * <code>false</code> otherwise.
+     */
+    private static <T> boolean same(List<T> a, List<T> b, Function<? super T, ?> key)
+    {
+        return a.stream().map(key).collect(Collectors.toList()).equals(b.stream().map(key).collect(Collectors.toList()));
+    }
+
+    /**
+     * Determine if two versions of a card have the same attributes.  Expansions only
+     * compare names, so their other properties are checked here as well.
+     *
+     * @param a old version of the card
+     * @param b new version of the card
+     * @return <code>true</code> if nothing about the card has changed, and <code>false</code>
+     * otherwise.
+     */
+    private static boolean unchanged(Card a, Card b)
+    {
+        Expansion x = a.expansion(), y = b.expansion();
+        return a.faces() == b.faces() &&
+               a.layout() == b.layout() &&
+               x.name.equals(y.name) && x.block.equals(y.block) && x.code.equals(y.code) && x.count == y.count && x.releaseDate.equals(y.releaseDate) &&
+               a.scryfallid().equals(b.scryfallid()) &&
+               a.name().equals(b.name()) &&
+               same(a.manaCost(), b.manaCost(), Objects::toString) &&
+               a.colors().equals(b.colors()) &&
+               a.colorIdentity().equals(b.colorIdentity()) &&
+               a.supertypes().equals(b.supertypes()) &&
+               a.types().equals(b.types()) &&
+               a.subtypes().equals(b.subtypes()) &&
+               a.printedTypes().equals(b.printedTypes()) &&
+               a.rarity() == b.rarity() &&
+               a.oracleText().equals(b.oracleText()) &&
+               a.flavorText().equals(b.flavorText()) &&
+               a.printedText().equals(b.printedText()) &&
+               a.artist().equals(b.artist()) &&
+               a.multiverseid().equals(b.multiverseid()) &&
+               a.number().equals(b.number()) &&
+               same(a.power(), b.power(), (p) -> p.expression) &&
+               same(a.toughness(), b.toughness(), (t) -> t.expression) &&
+               a.loyalty().equals(b.loyalty()) &&
+               a.rulings().equals(b.rulings()) &&
+               a.legality().equals(b.legality()) &&
+               a.commandFormats().equals(b.commandFormats());
+    }
+
+    /** Cards that are in the new inventory but not the old one. */
+    private final List<Card> added;
+    /** Cards that are in the old inventory but not the new one. */
+    private final List<Card> removed;
+    /** New versions of cards that are in both inventories but have changed. */
+    private final List<Card> changed;
+    /** Cards that should be in the new inventory. */
+    private final List<Card> cards;
+
+    /**
+     * Create a new, empty InventoryUpdate.
+     */
+    private InventoryUpdate()
+    {
+        added = new ArrayList<>();
+        removed = new ArrayList<>();
+        changed = new ArrayList<>();
+        cards = new ArrayList<>();
+    }
+
+    /**
+     * @return The cards that were added to the inventory.
+     */
+    public List<Card> added()
+    {
+        return Collections.unmodifiableList(added);
+    }
+
+    /**
+     * @return The cards that were removed from the inventory.
+     */
+    public List<Card> removed()
+    {
+        return Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * @return The new versions of the cards that changed.
+     */
+    public List<Card> changed()
+    {
+        return Collections.unmodifiableList(changed);
+    }
+
+    /**
+     * @return The cards in the updated inventory, which are the old cards that didn't change
+     * and the new versions of the ones that did.
+     */
+    public List<Card> cards()
+    {
+        return Collections.unmodifiableList(cards);
+    }
+
+    /**
+     * @return <code>true</code> if no cards were added, removed, or changed, and
+     * <code>false</code> otherwise.
+     */
+    public boolean isEmpty()
+    {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * @return A String summarizing how many cards were added, removed, and changed.
+     */
+    @Override
+    public String toString()
+    {
+        return added.size() + " card(s) added, " + removed.size() + " removed, " + changed.size() + " changed";
+    }
+}
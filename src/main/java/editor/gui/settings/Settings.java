@@ -59,6 +59,18 @@ public final class Settings
         public final UpdateFrequency update;
         /** Show warnings from loading inventory. */
         public final boolean warn;
+        /** Number of threads to use for creating cards while loading the inventory. */
+        public final int threads;
+        /** Keep the inventory file compressed and load it directly from the archive. */
+        public final boolean compressed;
+        /** Size of the buffer to use for downloading the inventory, in kilobytes. */
+        public final int downloadBuffer;
+        /** Keep rulings, flavor text, and printed text on disk and only load them when they're needed. */
+        public final boolean detailsOnDisk;
+        /** Store single-faced cards in shared arrays rather than one object per card. */
+        public final boolean columnar;
+        /** Number of cards to filter on one thread; filtering more cards than this is split among several. */
+        public final int filterThreshold;
         /** Card attributes to show in inventory table. */
         public final List<CardAttribute> columns;
         /** Background color of card image panel. */
@@ -76,6 +88,12 @@ public final class Settings
                                     String tags,
                                     UpdateFrequency update,
                                     boolean warn,
+                                    int threads,
+                                    boolean compressed,
+                                    int downloadBuffer,
+                                    boolean detailsOnDisk,
+                                    boolean columnar,
+                                    int filterThreshold,
                                     List<CardAttribute> columns,
                                     Color background,
                                     Color stripe)
@@ -90,6 +108,12 @@ public final class Settings
             this.tags = tags;
             this.update = update;
             this.warn = warn;
+            this.threads = threads;
+            this.compressed = compressed;
+            this.downloadBuffer = downloadBuffer;
+            this.detailsOnDisk = detailsOnDisk;
+            this.columnar = columnar;
+            this.filterThreshold = filterThreshold;
             this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
             this.background = background;
             this.stripe = stripe;
@@ -108,6 +132,12 @@ public final class Settings
                 SettingsDialog.EDITOR_HOME.resolve("tags.json").toString(),
                 UpdateFrequency.DAILY,
                 true,
+                Runtime.getRuntime().availableProcessors(),
+                false,
+                1024,
+                false,
+                false,
+                4096,
                 List.of(NAME, MANA_COST, TYPE_LINE, EXPANSION),
                 Color.WHITE,
                 new Color(0xCC, 0xCC, 0xCC, 0xFF)
@@ -116,11 +146,12 @@ public final class Settings
 
         /**
          * @return the full path name of the inventory file, i.e.
-         * [@{link #location}]/[{@link #file}].
+         * [@{link #location}]/[{@link #file}], or [@{link #location}]/[{@link #file}].zip
+         * if the inventory is kept {@link #compressed}.
          */
         public String path()
         {
-            return location + File.separator + file;
+            return location + File.separator + file + (compressed ? ".zip" : "");
         }
 
         /**
@@ -162,6 +193,12 @@ public final class Settings
                    tags.equals(o.tags) &&
                    update == o.update &&
                    warn == o.warn &&
+                   threads == o.threads &&
+                   compressed == o.compressed &&
+                   downloadBuffer == o.downloadBuffer &&
+                   detailsOnDisk == o.detailsOnDisk &&
+                   columnar == o.columnar &&
+                   filterThreshold == o.filterThreshold &&
                    columns.equals(o.columns) &&
                    background.equals(o.background) &&
                    stripe.equals(o.stripe);
@@ -454,9 +491,9 @@ public final class Settings
     /** Initial directory of file choosers. */
     public final String cwd;
 
-    protected Settings(String inventorySource, String inventoryFile, String inventoryVersionFile, DatabaseVersion inventoryVersion, String inventoryLocation, String inventoryScans, String imageSource, String inventoryTags, UpdateFrequency inventoryUpdate, boolean inventoryWarn, List<CardAttribute> inventoryColumns, Color inventoryBackground, Color inventoryStripe, int recentsCount, List<String> recentsFiles, int explicits, List<CategorySpec> presetCategories, int categoryRows, List<CardAttribute> editorColumns, Color editorStripe, int handSize, String handRounding, Color handBackground, boolean searchForCommander, boolean main, boolean all, String list, String sideboard, String cwd)
+    protected Settings(String inventorySource, String inventoryFile, String inventoryVersionFile, DatabaseVersion inventoryVersion, String inventoryLocation, String inventoryScans, String imageSource, String inventoryTags, UpdateFrequency inventoryUpdate, boolean inventoryWarn, int inventoryThreads, boolean inventoryCompressed, int inventoryDownloadBuffer, boolean inventoryDetailsOnDisk, boolean inventoryColumnar, int inventoryFilterThreshold, List<CardAttribute> inventoryColumns, Color inventoryBackground, Color inventoryStripe, int recentsCount, List<String> recentsFiles, int explicits, List<CategorySpec> presetCategories, int categoryRows, List<CardAttribute> editorColumns, Color editorStripe, int handSize, String handRounding, Color handBackground, boolean searchForCommander, boolean main, boolean all, String list, String sideboard, String cwd)
     {
-        this.inventory = new InventorySettings(inventorySource, inventoryFile, inventoryVersionFile, inventoryVersion, inventoryLocation, inventoryScans, imageSource, inventoryTags, inventoryUpdate, inventoryWarn, inventoryColumns, inventoryBackground, inventoryStripe);
+        this.inventory = new InventorySettings(inventorySource, inventoryFile, inventoryVersionFile, inventoryVersion, inventoryLocation, inventoryScans, imageSource, inventoryTags, inventoryUpdate, inventoryWarn, inventoryThreads, inventoryCompressed, inventoryDownloadBuffer, inventoryDetailsOnDisk, inventoryColumnar, inventoryFilterThreshold, inventoryColumns, inventoryBackground, inventoryStripe);
         this.editor = new EditorSettings(recentsCount, recentsFiles, explicits, presetCategories, categoryRows, editorColumns, editorStripe, handSize, handRounding, handBackground, searchForCommander, main, all, list, sideboard);
         this.cwd = cwd;
     }
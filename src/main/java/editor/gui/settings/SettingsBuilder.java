@@ -29,6 +29,12 @@ public class SettingsBuilder
     private String inventoryTags;
     private UpdateFrequency inventoryUpdate;
     private boolean inventoryWarn;
+    private int inventoryThreads;
+    private boolean inventoryCompressed;
+    private int inventoryDownloadBuffer;
+    private boolean inventoryDetailsOnDisk;
+    private boolean inventoryColumnar;
+    private int inventoryFilterThreshold;
     private List<CardAttribute> inventoryColumns;
     private Color inventoryBackground;
     private Color inventoryStripe;
@@ -85,6 +91,12 @@ public class SettingsBuilder
             inventoryTags,
             inventoryUpdate,
             inventoryWarn,
+            inventoryThreads,
+            inventoryCompressed,
+            inventoryDownloadBuffer,
+            inventoryDetailsOnDisk,
+            inventoryColumnar,
+            inventoryFilterThreshold,
             inventoryColumns,
             inventoryBackground,
             inventoryStripe,
@@ -125,6 +137,12 @@ public class SettingsBuilder
         inventoryTags = original.inventory.tags;
         inventoryUpdate = original.inventory.update;
         inventoryWarn = original.inventory.warn;
+        inventoryThreads = original.inventory.threads;
+        inventoryCompressed = original.inventory.compressed;
+        inventoryDownloadBuffer = original.inventory.downloadBuffer;
+        inventoryDetailsOnDisk = original.inventory.detailsOnDisk;
+        inventoryColumnar = original.inventory.columnar;
+        inventoryFilterThreshold = original.inventory.filterThreshold;
         inventoryColumns = original.inventory.columns;
         inventoryBackground = original.inventory.background;
         inventoryStripe = original.inventory.stripe;
@@ -161,6 +179,12 @@ public class SettingsBuilder
      * <li>{@link Settings.InventorySettings#tags}: <code>$HOME/.editor/tags.json</code>
      * <li>{@link Settings.InventorySettings#update}: Daily
      * <li>{@link Settings.InventorySettings#warn}: <code>true</code>
+     * <li>{@link Settings.InventorySettings#threads}: number of available processors
+     * <li>{@link Settings.InventorySettings#compressed}: <code>false</code>
+     * <li>{@link Settings.InventorySettings#downloadBuffer}: 1024
+     * <li>{@link Settings.InventorySettings#detailsOnDisk}: <code>false</code>
+     * <li>{@link Settings.InventorySettings#columnar}: <code>false</code>
+     * <li>{@link Settings.InventorySettings#filterThreshold}: 4096
      * <li>{@link Settings.InventorySettings#columns}:
      *     {@link CardAttribute#NAME}, {@link CardAttribute#MANA_COST},
      *     {@link CardAttribute#TYPE_LINE}, {@link CardAttribute#EXPANSION}
@@ -327,6 +351,85 @@ public class SettingsBuilder
         return this;
     }
 
+    /**
+     * Change the number of threads to use for loading the inventory.
+     * 
+     * @param threads number of threads to create cards on
+     * @return this SettingsBuilder
+     * @see Settings.InventorySettings#threads
+     */
+    public SettingsBuilder inventoryThreads(int threads)
+    {
+        inventoryThreads = threads;
+        return this;
+    }
+
+    /**
+     * Change whether or not to keep the inventory compressed.
+     * 
+     * @param compressed whether or not to load the inventory directly from its archive
+     * @return this SettingsBuilder
+     * @see Settings.InventorySettings#compressed
+     */
+    public SettingsBuilder inventoryCompressed(boolean compressed)
+    {
+        inventoryCompressed = compressed;
+        return this;
+    }
+
+    /**
+     * Change the size of the buffer to use for downloading the inventory.
+     * 
+     * @param size new buffer size in kilobytes
+     * @return this SettingsBuilder
+     * @see Settings.InventorySettings#downloadBuffer
+     */
+    public SettingsBuilder inventoryDownloadBuffer(int size)
+    {
+        inventoryDownloadBuffer = size;
+        return this;
+    }
+
+    /**
+     * Change whether or not to keep card details on disk until they're needed.
+     * 
+     * @param onDisk whether or not to keep rulings, flavor text, and printed text on disk
+     * @return this SettingsBuilder
+     * @see Settings.InventorySettings#detailsOnDisk
+     */
+    public SettingsBuilder inventoryDetailsOnDisk(boolean onDisk)
+    {
+        inventoryDetailsOnDisk = onDisk;
+        return this;
+    }
+
+    /**
+     * Change whether or not to store single-faced cards in shared arrays.
+     * 
+     * @param columnar whether or not to store cards in arrays rather than one object per card
+     * @return this SettingsBuilder
+     * @see Settings.InventorySettings#columnar
+     */
+    public SettingsBuilder inventoryColumnar(boolean columnar)
+    {
+        inventoryColumnar = columnar;
+        return this;
+    }
+
+    /**
+     * Change the number of cards to filter on one thread before splitting filtering
+     * among several.
+     * 
+     * @param threshold largest number of cards to filter on one thread
+     * @return this SettingsBuilder
+     * @see Settings.InventorySettings#filterThreshold
+     */
+    public SettingsBuilder inventoryFilterThreshold(int threshold)
+    {
+        inventoryFilterThreshold = threshold;
+        return this;
+    }
+
     /**
      * Change the information to show in the inventory table.
      * 
@@ -351,6 +351,30 @@ public class SettingsDialog extends JDialog
      * Combo box indicating how often to download updates.
      */
     private JComboBox<UpdateFrequency> updateBox;
+    /**
+     * Number of threads to use for loading the inventory.
+     */
+    private JSpinner threadsSpinner;
+    /**
+     * Check box indicating whether or not to keep the inventory compressed.
+     */
+    private JCheckBox compressedCheckBox;
+    /**
+     * Size of the buffer to use for downloading the inventory, in kilobytes.
+     */
+    private JSpinner bufferSpinner;
+    /**
+     * Check box indicating whether or not to keep card details on disk until they're needed.
+     */
+    private JCheckBox detailsCheckBox;
+    /**
+     * Check box indicating whether or not to store cards in shared arrays.
+     */
+    private JCheckBox columnarCheckBox;
+    /**
+     * Number of cards to filter on one thread before splitting filtering among several.
+     */
+    private JSpinner filterThresholdSpinner;
     /**
      * Check box indicating whether or not to check for a commander by default in legality
      * check.
@@ -524,6 +548,60 @@ public class SettingsDialog extends JDialog
         inventoryPanel.add(updatePanel);
         inventoryPanel.add(Box.createVerticalStrut(5));
 
+        // Threads to use for loading the inventory
+        JPanel threadsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        threadsPanel.add(new JLabel("Threads for loading inventory:"));
+        threadsPanel.add(Box.createHorizontalStrut(5));
+        threadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, Integer.MAX_VALUE, 1));
+        threadsPanel.add(threadsSpinner);
+        threadsPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, threadsPanel.getPreferredSize().height));
+        inventoryPanel.add(threadsPanel);
+        inventoryPanel.add(Box.createVerticalStrut(5));
+
+        // Keep the inventory compressed
+        JPanel compressedPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        compressedCheckBox = new JCheckBox("Keep inventory file compressed");
+        compressedPanel.add(compressedCheckBox);
+        compressedPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, compressedPanel.getPreferredSize().height));
+        inventoryPanel.add(compressedPanel);
+        inventoryPanel.add(Box.createVerticalStrut(5));
+
+        // Download buffer size
+        JPanel bufferPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        bufferPanel.add(new JLabel("Download buffer size (kB):"));
+        bufferPanel.add(Box.createHorizontalStrut(5));
+        bufferSpinner = new JSpinner(new SpinnerNumberModel(1, 1, Integer.MAX_VALUE/1024, 64));
+        bufferPanel.add(bufferSpinner);
+        bufferPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, bufferPanel.getPreferredSize().height));
+        inventoryPanel.add(bufferPanel);
+        inventoryPanel.add(Box.createVerticalStrut(5));
+
+        // Keep card details on disk
+        JPanel detailsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        detailsCheckBox = new JCheckBox("Keep rulings and flavor text on disk until they are shown");
+        detailsPanel.add(detailsCheckBox);
+        detailsPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, detailsPanel.getPreferredSize().height));
+        inventoryPanel.add(detailsPanel);
+        inventoryPanel.add(Box.createVerticalStrut(5));
+
+        // Store cards in shared arrays
+        JPanel columnarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        columnarCheckBox = new JCheckBox("Store cards compactly to reduce memory use");
+        columnarPanel.add(columnarCheckBox);
+        columnarPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, columnarPanel.getPreferredSize().height));
+        inventoryPanel.add(columnarPanel);
+        inventoryPanel.add(Box.createVerticalStrut(5));
+
+        // Cards to filter on one thread
+        JPanel filterThresholdPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        filterThresholdPanel.add(new JLabel("Cards to filter per thread:"));
+        filterThresholdPanel.add(Box.createHorizontalStrut(5));
+        filterThresholdSpinner = new JSpinner(new SpinnerNumberModel(1, 1, Integer.MAX_VALUE, 1024));
+        filterThresholdPanel.add(filterThresholdSpinner);
+        filterThresholdPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, filterThresholdPanel.getPreferredSize().height));
+        inventoryPanel.add(filterThresholdPanel);
+        inventoryPanel.add(Box.createVerticalStrut(5));
+
         // Show warnings from loading inventory
         JPanel suppressPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
         suppressCheckBox = new JCheckBox("Show warnings after loading inventory");
@@ -861,6 +939,12 @@ public class SettingsDialog extends JDialog
                 scansChooser.setCurrentDirectory(new File(scansDirField.getText()).getAbsoluteFile());
                 imgSourceBox.setSelectedIndex(Math.max(IMAGE_SOURCES.indexOf(settings.inventory.imageSource), 0));
                 updateBox.setSelectedIndex(settings.inventory.update.ordinal());
+                threadsSpinner.getModel().setValue(Math.max(settings.inventory.threads, 1));
+                compressedCheckBox.setSelected(settings.inventory.compressed);
+                bufferSpinner.getModel().setValue(Math.max(settings.inventory.downloadBuffer, 1));
+                detailsCheckBox.setSelected(settings.inventory.detailsOnDisk);
+                columnarCheckBox.setSelected(settings.inventory.columnar);
+                filterThresholdSpinner.getModel().setValue(Math.max(settings.inventory.filterThreshold, 1));
                 suppressCheckBox.setSelected(settings.inventory.warn);
                 viewWarningsButton.setEnabled(!inventoryWarnings.isEmpty());
                 for (var n : inventoryColumnCheckBoxes.entrySet())
@@ -920,6 +1004,9 @@ public class SettingsDialog extends JDialog
             explicitsSpinner.commitEdit();
             rowsSpinner.commitEdit();
             startingSizeSpinner.commitEdit();
+            threadsSpinner.commitEdit();
+            bufferSpinner.commitEdit();
+            filterThresholdSpinner.commitEdit();
 
             var presets = new ArrayList<CategorySpec>(categoriesList.getCount());
             for (int i = 0; i < categoriesList.getCount(); i++)
@@ -933,6 +1020,12 @@ public class SettingsDialog extends JDialog
                 .imageSource(imgSourceBox.getItemAt(imgSourceBox.getSelectedIndex()))
                 .inventoryUpdate(updateBox.getItemAt(updateBox.getSelectedIndex()))
                 .inventoryWarn(suppressCheckBox.isSelected())
+                .inventoryThreads((Integer)threadsSpinner.getValue())
+                .inventoryCompressed(compressedCheckBox.isSelected())
+                .inventoryDownloadBuffer((Integer)bufferSpinner.getValue())
+                .inventoryDetailsOnDisk(detailsCheckBox.isSelected())
+                .inventoryColumnar(columnarCheckBox.isSelected())
+                .inventoryFilterThreshold((Integer)filterThresholdSpinner.getValue())
                 .inventoryColumns(inventoryColumnCheckBoxes.entrySet().stream().filter((e) -> e.getValue().isSelected()).map(Map.Entry::getKey).sorted().collect(Collectors.toList()))
                 .inventoryStripe(inventoryStripeColor.getColor())
                 .recentsCount((Integer)recentSpinner.getValue())
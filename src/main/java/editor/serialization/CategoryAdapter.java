@@ -14,6 +14,7 @@ import com.google.gson.JsonSerializer;
 import editor.collection.deck.CategorySpec;
 import editor.database.card.Card;
 import editor.filter.Filter;
+import editor.util.Interner;
 
 /**
  * A JSON serializer and deserializer for {@link CategorySpec}.
@@ -41,7 +42,7 @@ public class CategoryAdapter implements JsonSerializer<CategorySpec>, JsonDeseri
         JsonObject obj = json.getAsJsonObject();
 
         CategorySpec category = new CategorySpec();
-        category.setName(obj.get("name").getAsString());
+        category.setName(Interner.STRINGS.intern(obj.get("name").getAsString()));
         category.setFilter(context.deserialize(obj.get("filter"), Filter.class));
         for (JsonElement element : obj.get("whitelist").getAsJsonArray())
             category.include(context.deserialize(element, Card.class));
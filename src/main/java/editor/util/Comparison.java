@@ -100,6 +100,18 @@ public enum Comparison
         return comparison.test(comparator.compare(a, b));
     }
 
+    /**
+     * Test the result of comparing two values according to this Comparison's operation.
+     *
+     * @param result result of comparing two values, like from {@link Comparable#compareTo(Object)}
+     * or {@link Double#compare(double, double)}
+     * @return true if the result satisfies the comparison, and false otherwise
+     */
+    public boolean matches(int result)
+    {
+        return comparison.test(result);
+    }
+
     /**
      * {@inheritDoc}
      * The String representation of a Comparison is its mathematical symbol.
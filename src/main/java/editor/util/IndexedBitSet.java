@@ -0,0 +1,318 @@
+package editor.util;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a fixed number of bits, like a {@link java.util.BitSet}, that can
+ * also quickly count the set bits before a position (rank) and find the position of the
+ * n<sup>th</sup> set bit (select).  It's meant for representing a subset of a list that
+ * doesn't change, so the elements of the subset can be accessed by index without copying
+ * them into a new list.
+ *
+ * The index used for ranking and selecting has one entry per 64 bits.  It's computed again
+ * the first time it's needed after any bits change.
+ *
+ * @author Alec Roelke
+ */
+public class IndexedBitSet
+{
+    /**
+     * Number of bits in the set.
+     */
+    private final int length;
+    /**
+     * Bits in the set, 64 at a time.  Bits past {@link #length} are always clear.
+     */
+    private final long[] words;
+    /**
+     * Number of set bits before each word, and the total number of set bits at the end.
+     */
+    private final int[] ranks;
+    /**
+     * Whether or not {@link #ranks} is up to date.
+     */
+    private boolean indexed;
+
+    /**
+     * Create a new IndexedBitSet with all of its bits clear.
+     *
+     * @param n number of bits in the set
+     */
+    public IndexedBitSet(int n)
+    {
+        length = n;
+        words = new long[(n + Long.SIZE - 1)/Long.SIZE];
+        ranks = new int[words.length + 1];
+        indexed = true;
+    }
+
+    /**
+     * Create a new IndexedBitSet that is a copy of another one.
+     *
+     * @param other IndexedBitSet to copy
+     */
+    public IndexedBitSet(IndexedBitSet other)
+    {
+        length = other.length;
+        words = other.words.clone();
+        ranks = other.ranks.clone();
+        indexed = other.indexed;
+    }
+
+    /**
+     * Make sure another IndexedBitSet can be combined with this one.
+     *
+     * @param other IndexedBitSet to check
+     * @throws IllegalArgumentException if the other IndexedBitSet has a different number of
+     * bits
+     */
+    private void checkLength(IndexedBitSet other) throws IllegalArgumentException
+    {
+        if (other.length != length)
+            throw new IllegalArgumentException("expected " + length + " bits, got " + other.length);
+    }
+
+    /**
+     * Clear the bits in the last word that are past the end of the set.
+     */
+    private void trim()
+    {
+        if (length % Long.SIZE != 0)
+            words[words.length - 1] &= (1L << length) - 1;
+    }
+
+    /**
+     * Bring the index used for ranking and selecting up to date, if it isn't already.
+     */
+    private void index()
+    {
+        if (!indexed)
+        {
+            for (int w = 0; w < words.length; w++)
+                ranks[w + 1] = ranks[w] + Long.bitCount(words[w]);
+            indexed = true;
+        }
+    }
+
+    /**
+     * @return The number of bits in this IndexedBitSet, whether or not they are set.
+     */
+    public int length()
+    {
+        return length;
+    }
+
+    /**
+     * Get the value of a bit.
+     *
+     * @param i position of the bit
+     * @return <code>true</code> if the bit is set, and <code>false</code> otherwise.
+     * @throws IndexOutOfBoundsException if the position is outside the set
+     */
+    public boolean get(int i) throws IndexOutOfBoundsException
+    {
+        return (words[word(i)] & 1L << i) != 0;
+    }
+
+    /**
+     * Set a bit.
+     *
+     * @param i position of the bit to set
+     * @throws IndexOutOfBoundsException if the position is outside the set
+     */
+    public void set(int i) throws IndexOutOfBoundsException
+    {
+        words[word(i)] |= 1L << i;
+        indexed = false;
+    }
+
+    /**
+     * Clear a bit.
+     *
+     * @param i position of the bit to clear
+     * @throws IndexOutOfBoundsException if the position is outside the set
+     */
+    public void clear(int i) throws IndexOutOfBoundsException
+    {
+        words[word(i)] &= ~(1L << i);
+        indexed = false;
+    }
+
+    /**
+     * Set all of the bits.
+     */
+    public void setAll()
+    {
+        Arrays.fill(words, -1L);
+        trim();
+        indexed = false;
+    }
+
+    /**
+     * Clear all of the bits.
+     */
+    public void clearAll()
+    {
+        Arrays.fill(words, 0L);
+        Arrays.fill(ranks, 0);
+        indexed = true;
+    }
+
+    /**
+     * Clear the bits that aren't set in another IndexedBitSet.
+     *
+     * @param other IndexedBitSet to intersect with
+     * @throws IllegalArgumentException if the other IndexedBitSet has a different number of
+     * bits
+     */
+    public void and(IndexedBitSet other) throws IllegalArgumentException
+    {
+        checkLength(other);
+        for (int w = 0; w < words.length; w++)
+            words[w] &= other.words[w];
+        indexed = false;
+    }
+
+    /**
+     * Set the bits that are set in another IndexedBitSet.
+     *
+     * @param other IndexedBitSet to unite with
+     * @throws IllegalArgumentException if the other IndexedBitSet has a different number of
+     * bits
+     */
+    public void or(IndexedBitSet other) throws IllegalArgumentException
+    {
+        checkLength(other);
+        for (int w = 0; w < words.length; w++)
+            words[w] |= other.words[w];
+        indexed = false;
+    }
+
+    /**
+     * Clear the bits that are set in another IndexedBitSet.
+     *
+     * @param other IndexedBitSet whose bits should be cleared from this one
+     * @throws IllegalArgumentException if the other IndexedBitSet has a different number of
+     * bits
+     */
+    public void andNot(IndexedBitSet other) throws IllegalArgumentException
+    {
+        checkLength(other);
+        for (int w = 0; w < words.length; w++)
+            words[w] &= ~other.words[w];
+        indexed = false;
+    }
+
+    /**
+     * Flip all of the bits, so the ones that were set are clear and vice versa.
+     */
+    public void not()
+    {
+        for (int w = 0; w < words.length; w++)
+            words[w] = ~words[w];
+        trim();
+        indexed = false;
+    }
+
+    /**
+     * @return The number of bits that are set.
+     */
+    public int cardinality()
+    {
+        index();
+        return ranks[words.length];
+    }
+
+    /**
+     * Count the set bits before a position.
+     *
+     * @param i position to count up to, which can be the length of the set to count all of
+     * the set bits
+     * @return The number of set bits before the position.  If the bit at the position is set,
+     * this is its index among the set bits.
+     * @throws IndexOutOfBoundsException if the position is outside the set
+     */
+    public int rank(int i) throws IndexOutOfBoundsException
+    {
+        if (i < 0 || i > length)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + length);
+        index();
+        int w = i/Long.SIZE;
+        return i % Long.SIZE == 0 ? ranks[w] : ranks[w] + Long.bitCount(words[w] & (1L << i) - 1);
+    }
+
+    /**
+     * Find the position of a set bit by its index among the set bits.
+     *
+     * @param n index of the set bit to find
+     * @return The position of the n<sup>th</sup> set bit, counting from 0.
+     * @throws IndexOutOfBoundsException if there aren't more than n set bits
+     */
+    public int select(int n) throws IndexOutOfBoundsException
+    {
+        if (n < 0 || n >= cardinality())
+            throw new IndexOutOfBoundsException("Index " + n + " out of bounds for length " + cardinality());
+
+        // Find the last word that starts with no more than n set bits before it
+        int low = 0;
+        int high = words.length - 1;
+        while (low < high)
+        {
+            int mid = (low + high + 1) >>> 1;
+            if (ranks[mid] <= n)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        // Skip whole bytes of the word before clearing set bits one at a time
+        long word = words[low];
+        int j = n - ranks[low];
+        int shift = 0;
+        for (int c; (c = Long.bitCount(word & 0xFF)) <= j; j -= c)
+        {
+            word >>>= Byte.SIZE;
+            shift += Byte.SIZE;
+        }
+        for (; j > 0; j--)
+            word &= word - 1;
+        return low*Long.SIZE + shift + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Find the next set bit.
+     *
+     * @param from position to start looking at
+     * @return The position of the first set bit at or after the given one, or -1 if there
+     * isn't one.
+     */
+    public int nextSetBit(int from)
+    {
+        if (from < 0)
+            from = 0;
+        if (from >= length)
+            return -1;
+        int w = from/Long.SIZE;
+        long word = words[w] & -1L << from;
+        while (word == 0)
+        {
+            if (++w == words.length)
+                return -1;
+            word = words[w];
+        }
+        return w*Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Find the word containing a bit.
+     *
+     * @param i position of the bit
+     * @return The index of the word in {@link #words} containing the bit.
+     * @throws IndexOutOfBoundsException if the position is outside the set
+     */
+    private int word(int i) throws IndexOutOfBoundsException
+    {
+        if (i < 0 || i >= length)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + length);
+        return i/Long.SIZE;
+    }
+}
@@ -0,0 +1,221 @@
+package editor.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * This class represents a pool of canonical values, so that equal values that are
+ * created separately can share a single copy.  Values are only weakly held by the pool,
+ * so one that is no longer used anywhere else can still be garbage collected.  It is
+ * safe to use from multiple threads; the pool is split into several independently-locked
+ * parts so threads interning different values usually don't wait for each other.
+ *
+ * Unlike {@link String#intern()}, values are kept on the regular heap and the pool can
+ * report roughly how much memory it is saving, which is the estimated size of each
+ * duplicate that was replaced by a canonical value that is still alive.  Duplicates are
+ * counted since the last {@link #reset()}, so resetting before loading something that
+ * replaces everything that was interned before keeps the report about what is alive.
+ *
+ * @param <T> type of value being interned; values should be immutable
+ * @author Alec Roelke
+ */
+public class Interner<T>
+{
+    /**
+     * Pool of strings shared by the card model, including the inventory, tags, and
+     * category names.
+     */
+    public static final Interner<String> STRINGS = new Interner<>(Interner::stringSize);
+
+    /**
+     * Number of independently-locked parts of the pool.  Must be a power of 2.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Estimate how many bytes a String takes up on the heap, including its character array.
+     * This assumes a 64-bit JVM with compressed references and compact strings.
+     *
+     * @param s string to measure
+     * @return the approximate number of bytes used by the string.
+     */
+    public static long stringSize(String s)
+    {
+        boolean latin1 = s.chars().allMatch((c) -> c < 256);
+        long array = 16 + (latin1 ? s.length() : 2L*s.length());
+        return 24 + (array + 7)/8*8;
+    }
+
+    /**
+     * Canonical value in the pool along with the number of duplicates of it that have
+     * been replaced.
+     *
+     * @param <T> type of value being interned
+     * @author Alec Roelke
+     */
+    private static class Entry<T>
+    {
+        /** The canonical value, which isn't kept alive by the pool. */
+        public final WeakReference<T> value;
+        /** Number of copies of the value that were replaced by the canonical one. */
+        public long duplicates;
+
+        /**
+         * Create a new Entry for a canonical value that hasn't replaced any duplicates yet.
+         *
+         * @param v canonical value
+         */
+        public Entry(T v)
+        {
+            value = new WeakReference<>(v);
+            duplicates = 0;
+        }
+    }
+
+    /**
+     * Parts of the pool, selected by value hash code.
+     */
+    private final Map<T, Entry<T>>[] stripes;
+    /**
+     * Function estimating how many bytes a value takes up.
+     */
+    private final ToLongFunction<? super T> size;
+
+    /**
+     * Create a new, empty Interner.
+     *
+     * @param s function estimating how many bytes a value takes up, used for
+     * reporting memory savings
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Interner(ToLongFunction<? super T> s)
+    {
+        size = s;
+        stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new WeakHashMap<>();
+    }
+
+    /**
+     * Get the canonical copy of a value.  If there isn't one yet, the value becomes the
+     * canonical copy.
+     *
+     * @param value value to intern
+     * @return A value equal to the given one that is shared with all other equal values
+     * interned by this Interner, or null if the value is null.
+     */
+    public T intern(T value)
+    {
+        if (value == null)
+            return null;
+        int h = value.hashCode();
+        Map<T, Entry<T>> stripe = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe)
+        {
+            Entry<T> entry = stripe.get(value);
+            T canonical = entry == null ? null : entry.value.get();
+            if (canonical == null)
+            {
+                stripe.put(value, new Entry<>(value));
+                return value;
+            }
+            if (canonical != value)
+                entry.duplicates++;
+            return canonical;
+        }
+    }
+
+    /**
+     * Count places that share a canonical value instead of holding their own copies of it,
+     * for values that were shared without going through {@link #intern(Object)} each time.
+     * Nothing is counted if the value isn't the canonical one.
+     *
+     * @param value canonical value that is being shared
+     * @param n number of additional places that share it
+     */
+    public void shared(T value, long n)
+    {
+        if (value == null)
+            return;
+        int h = value.hashCode();
+        Map<T, Entry<T>> stripe = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe)
+        {
+            Entry<T> entry = stripe.get(value);
+            if (entry != null && entry.value.get() == value)
+                entry.duplicates += n;
+        }
+    }
+
+    /**
+     * Forget how many duplicates have been replaced so far, without removing any values from
+     * the pool.  This should be done before loading data that replaces everything that
+     * used to share the pool's values, so those places aren't counted twice.
+     */
+    public void reset()
+    {
+        for (Map<T, Entry<T>> stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                for (Entry<T> entry : stripe.values())
+                    entry.duplicates = 0;
+            }
+        }
+    }
+
+    /**
+     * @return The number of canonical values in the pool that are still alive.
+     */
+    public int size()
+    {
+        int n = 0;
+        for (Map<T, Entry<T>> stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                n += stripe.size();
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Estimate how much memory has been saved by replacing duplicate values with canonical
+     * ones since the last {@link #reset()}.  Only canonical values that are still alive are
+     * counted, but it's assumed that all of the places they replaced duplicates in are also
+     * still alive.
+     *
+     * @return The approximate number of bytes that would be used by duplicate values if they
+     * hadn't been interned.
+     */
+    public long saved()
+    {
+        long bytes = 0;
+        for (Map<T, Entry<T>> stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                for (Entry<T> entry : stripe.values())
+                {
+                    T value = entry.value.get();
+                    if (value != null && entry.duplicates > 0)
+                        bytes += entry.duplicates*size.applyAsLong(value);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return A String reporting how many values are in the pool and roughly how much memory
+     * they have saved since the last reset.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("%d shared values saving about %.1f MB since the last reset", size(), saved()/1048576.0);
+    }
+}
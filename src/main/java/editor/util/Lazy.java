@@ -16,7 +16,7 @@ public class Lazy<T> implements Supplier<T>
     /** Supplier of the value which will be called once when the value is first accessed. */
     private transient Supplier<T> supplier;
     /** The cached value of the computation. */
-    private T value;
+    private volatile T value;
 
     /**
      * Create a new Lazy supplier.
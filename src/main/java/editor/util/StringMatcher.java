@@ -0,0 +1,235 @@
+package editor.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class finds all occurrences of a fixed set of strings in a text in a single pass
+ * over the text, no matter how many strings there are, using the Aho-Corasick algorithm.
+ * Each string has a value associated with it that is reported along with the position
+ * where it was found.  Matching is case-sensitive, so the strings and the text should be
+ * normalized the same way before they're used.
+ *
+ * The automaton is stored in flat arrays rather than in one object per state so that
+ * matchers for large sets of strings, like the names of all cards, don't take up too much
+ * memory.
+ *
+ * @param <T> type of value associated with each string
+ * @author Alec Roelke
+ */
+public class StringMatcher<T>
+{
+    /**
+     * An occurrence of one of the strings in a text.
+     *
+     * @param <T> type of value associated with the string
+     * @author Alec Roelke
+     */
+    public static class Match<T>
+    {
+        /** Index of the first character of the string in the text. */
+        public final int start;
+        /** Index after the last character of the string in the text. */
+        public final int end;
+        /** Value associated with the string. */
+        public final T value;
+
+        /**
+         * Create a new Match.
+         *
+         * @param s index of the first character of the match
+         * @param e index after the last character of the match
+         * @param v value associated with the string that matched
+         */
+        public Match(int s, int e, T v)
+        {
+            start = s;
+            end = e;
+            value = v;
+        }
+
+        /**
+         * @return The number of characters in the match.
+         */
+        public int length()
+        {
+            return end - start;
+        }
+    }
+
+    /**
+     * Index of the first edge leaving each state in {@link #edgeChars} and
+     * {@link #edgeTargets}.  Edges leaving a state are sorted by character, and the edges
+     * leaving state <code>i</code> end where the ones leaving state <code>i + 1</code> start.
+     */
+    private final int[] firstEdge;
+    /** Character on each edge. */
+    private final char[] edgeChars;
+    /** State each edge leads to. */
+    private final int[] edgeTargets;
+    /** State to continue from if the next character has no edge, for each state. */
+    private final int[] fail;
+    /**
+     * Nearest state reachable by following {@link #fail} links that ends a string, or
+     * 0 if there isn't one, for each state.
+     */
+    private final int[] nextOutput;
+    /** Index of the string that ends at each state, or -1 if none does. */
+    private final int[] output;
+    /** Length of each string. */
+    private final int[] lengths;
+    /** Value associated with each string. */
+    private final List<T> values;
+
+    /**
+     * Create a new StringMatcher that finds the given strings.
+     *
+     * @param patterns strings to find and the values to report when they're found; empty
+     * strings are ignored
+     */
+    public StringMatcher(Map<String, ? extends T> patterns)
+    {
+        values = new ArrayList<>(patterns.size());
+        lengths = new int[patterns.size()];
+
+        // Build the trie, with edges keyed by source state and character
+        var edges = new HashMap<Long, Integer>();
+        var ends = new HashMap<Integer, Integer>();
+        int states = 1;
+        for (var pattern : patterns.entrySet())
+        {
+            String s = pattern.getKey();
+            if (s.isEmpty())
+                continue;
+            int state = 0;
+            for (int i = 0; i < s.length(); i++)
+            {
+                long key = (long)state << 16 | s.charAt(i);
+                Integer next = edges.get(key);
+                if (next == null)
+                {
+                    next = states++;
+                    edges.put(key, next);
+                }
+                state = next;
+            }
+            ends.put(state, values.size());
+            lengths[values.size()] = s.length();
+            values.add(pattern.getValue());
+        }
+
+        // Flatten the edges so the ones leaving each state are adjacent and sorted
+        long[] keys = edges.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        firstEdge = new int[states + 1];
+        edgeChars = new char[keys.length];
+        edgeTargets = new int[keys.length];
+        for (int i = 0; i < keys.length; i++)
+        {
+            firstEdge[(int)(keys[i] >>> 16) + 1]++;
+            edgeChars[i] = (char)(keys[i] & 0xFFFF);
+            edgeTargets[i] = edges.get(keys[i]);
+        }
+        for (int i = 0; i < states; i++)
+            firstEdge[i + 1] += firstEdge[i];
+        edges.clear();
+
+        output = new int[states];
+        Arrays.fill(output, -1);
+        for (var end : ends.entrySet())
+            output[end.getKey()] = end.getValue();
+
+        // Link each state to the longest proper suffix of it that is also in the trie
+        fail = new int[states];
+        nextOutput = new int[states];
+        var queue = new ArrayDeque<Integer>();
+        queue.add(0);
+        while (!queue.isEmpty())
+        {
+            int state = queue.poll();
+            for (int e = firstEdge[state]; e < firstEdge[state + 1]; e++)
+            {
+                int child = edgeTargets[e];
+                if (state != 0)
+                {
+                    int f = fail[state];
+                    int next;
+                    while ((next = next(f, edgeChars[e])) < 0 && f != 0)
+                        f = fail[f];
+                    fail[child] = next < 0 ? 0 : next;
+                }
+                nextOutput[child] = output[fail[child]] >= 0 ? fail[child] : nextOutput[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Find the state reached by following an edge out of a state.
+     *
+     * @param state state to start from
+     * @param c character on the edge
+     * @return The state at the end of the edge, or -1 if there is no edge with that
+     * character.
+     */
+    private int next(int state, char c)
+    {
+        int e = Arrays.binarySearch(edgeChars, firstEdge[state], firstEdge[state + 1], c);
+        return e < 0 ? -1 : edgeTargets[e];
+    }
+
+    /**
+     * Find all occurrences of the strings in a text, including ones that overlap.
+     *
+     * @param text text to search
+     * @return A list of matches, in order of where they end in the text.
+     */
+    public List<Match<T>> find(CharSequence text)
+    {
+        var matches = new ArrayList<Match<T>>();
+        int state = 0;
+        for (int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+            int next;
+            while ((next = next(state, c)) < 0 && state != 0)
+                state = fail[state];
+            state = next < 0 ? 0 : next;
+            for (int s = output[state] >= 0 ? state : nextOutput[state]; s != 0; s = nextOutput[s])
+            {
+                int p = output[s];
+                matches.add(new Match<>(i + 1 - lengths[p], i + 1, values.get(p)));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Find the most specific occurrences of the strings in a text, which are the ones
+     * that aren't part of a longer occurrence.
+     *
+     * @param text text to search
+     * @return A list of matches that aren't contained in any other match, in order of
+     * where they start in the text.
+     */
+    public List<Match<T>> findLongest(CharSequence text)
+    {
+        var matches = find(text);
+        matches.sort(Comparator.comparingInt((Match<T> m) -> m.start).thenComparing(Comparator.comparingInt((Match<T> m) -> m.end).reversed()));
+        var longest = new ArrayList<Match<T>>();
+        int end = -1;
+        for (Match<T> match : matches)
+        {
+            if (match.end > end)
+            {
+                longest.add(match);
+                end = match.end;
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,95 @@
+package editor.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * This class represents an input stream that copies everything that is read
+ * from it to an output stream.  The output stream is not closed when this
+ * stream is.
+ *
+ * @author Alec Roelke
+ */
+public class TeeInputStream extends FilterInputStream
+{
+    /**
+     * Stream to copy bytes to.
+     */
+    private OutputStream out;
+
+    /**
+     * Create a TeeInputStream that copies bytes from the given #InputStream
+     * to the given #OutputStream as they are read.
+     *
+     * @param in stream to read from
+     * @param o stream to copy to
+     */
+    public TeeInputStream(InputStream in, OutputStream o)
+    {
+        super(in);
+        out = o;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Marking isn't supported, so this does nothing.
+     */
+    @Override
+    public void mark(int readlimit)
+    {}
+
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        int r = super.read();
+        if (r >= 0)
+            out.write(r);
+        return r;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        int r = super.read(b, off, len);
+        if (r > 0)
+            out.write(b, off, r);
+        return r;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Marking isn't supported, so this always fails.
+     *
+     * @throws IOException always
+     */
+    @Override
+    public void reset() throws IOException
+    {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * {@inheritDoc}
+     * Skipped bytes are read so they are still copied.
+     */
+    @Override
+    public long skip(long n) throws IOException
+    {
+        if (n <= 0)
+            return 0;
+        byte[] buffer = new byte[(int)Math.min(n, 8192)];
+        long skipped = 0;
+        int r;
+        while (skipped < n && (r = read(buffer, 0, (int)Math.min(n - skipped, buffer.length))) > 0)
+            skipped += r;
+        return skipped;
+    }
+}